@@ -0,0 +1,89 @@
+package com.studyfi.userandgroup;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the application against a fresh in-memory H2 database and seeds it with synthetic users and groups
+public final class BenchmarkContext {
+
+    public static final String PASSWORD = "Benchmark1!";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return builder(databaseName)
+                .web(WebApplicationType.NONE)
+                .run();
+    }
+
+    // Same, but with the embedded web server listening on a random port (read it from local.server.port)
+    public static ConfigurableApplicationContext startServer(String databaseName, String... properties) {
+        return builder(databaseName)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    private static SpringApplicationBuilder builder(String databaseName) {
+        return new SpringApplicationBuilder(UserandgroupApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN");
+    }
+
+    // Insert users with ids 1..count, all sharing one precomputed password hash
+    public static void seedUsers(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        String sql = "INSERT INTO user (name, email, password, phone_contact, birth_date, country, about_me, current_address, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            batch.add(new Object[]{"User " + i, "user" + i + "@studyfi.com", passwordHash, "+94 77 000 " + i,
+                    "2000-01-01", "Sri Lanka", "About user " + i, i + " Main Street, Colombo"});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // Insert groups with ids 1..count and spread the first userCount users over them round-robin
+    public static void seedGroups(ConfigurableApplicationContext context, int count, int userCount) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> groups = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            groups.add(new Object[]{"Group " + i, "Study group number " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO study_group (name, description, version) VALUES (?, ?, 0)", groups);
+
+        List<Object[]> memberships = new ArrayList<>(BATCH_SIZE);
+        for (int userId = 1; userId <= userCount; userId++) {
+            memberships.add(new Object[]{userId, (userId % count) + 1});
+            if (memberships.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO user_group (user_id, group_id) VALUES (?, ?)", memberships);
+                memberships.clear();
+            }
+        }
+        if (!memberships.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO user_group (user_id, group_id) VALUES (?, ?)", memberships);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.studyfi.userandgroup;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// HTTP load test: many concurrent clients against the JDBC-backed read endpoints, served either by
+// Tomcat's platform-thread pool or by virtual threads. The virtual=true case needs a Java 21 build (-Pjava21).
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(400)
+public class RequestThroughputBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"100000"})
+    private int userCount;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, this is Java " + Runtime.version().feature());
+        }
+        context = BenchmarkContext.startServer("throughput", "spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkContext.seedUsers(context, userCount);
+        BenchmarkContext.seedGroups(context, 1000, userCount);
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int usersPage() throws IOException, InterruptedException {
+        int afterId = ThreadLocalRandom.current().nextInt(userCount);
+        return get("/users/page?size=20&afterId=" + afterId);
+    }
+
+    @Benchmark
+    public int groupsPage() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(50);
+        return get("/groups/page?size=20&page=" + page);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,65 @@
+package com.studyfi.userandgroup.group.service;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Search latency over a large synthetic set of groups, built straight into the index without a database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GroupSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "algorithms", "biology", "calculus", "chemistry", "compilers", "databases", "economics", "ethics",
+            "geometry", "history", "linguistics", "literature", "networks", "philosophy", "physics", "statistics",
+            "study", "group", "weekly", "exam", "revision", "project", "lab", "seminar", "reading", "club"
+    };
+
+    @Param({"1000000"})
+    private int groupCount;
+
+    private GroupSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new GroupSearchIndex(null);
+        Random random = new Random(42);
+        for (int id = 1; id <= groupCount; id++) {
+            GroupDTO group = new GroupDTO();
+            group.setId(id);
+            group.setName(word(random) + " " + word(random) + " " + id);
+            group.setDescription(word(random) + " " + word(random) + " " + word(random));
+            index.put(group);
+        }
+    }
+
+    @Benchmark
+    public GroupSearchIndex.Result rareSubstring() {
+        return index.search("123456", 0, 20);
+    }
+
+    @Benchmark
+    public GroupSearchIndex.Result wordPrefix() {
+        return index.search("compil", 0, 20);
+    }
+
+    @Benchmark
+    public GroupSearchIndex.Result multiWordPrefix() {
+        return index.search("compilers st", 0, 20);
+    }
+
+    @Benchmark
+    public GroupSearchIndex.Result shortPrefix() {
+        return index.search("ph", 0, 20);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
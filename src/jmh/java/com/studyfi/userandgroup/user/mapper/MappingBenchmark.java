@@ -0,0 +1,79 @@
+package com.studyfi.userandgroup.user.mapper;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.mapper.GroupMapper;
+import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Entity/DTO conversions: the reflective ModelMapper the services used to call against the hand-written mappers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final GroupMapper groupMapper = new GroupMapper();
+
+    private User user;
+    private UserDTO userDTO;
+    private Group group;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1);
+        user.setName("Jane Doe");
+        user.setEmail("jane@studyfi.com");
+        user.setPassword("$2a$10$hash");
+        user.setPhoneContact("+94 77 123 4567");
+        user.setBirthDate("2000-01-01");
+        user.setCountry("Sri Lanka");
+        user.setAboutMe("Likes graph theory");
+        user.setCurrentAddress("Colombo");
+        userDTO = userMapper.toDTO(user);
+
+        group = new Group();
+        group.setId(1);
+        group.setName("Algorithms");
+        group.setDescription("Weekly problem sets");
+    }
+
+    @Benchmark
+    public UserDTO modelMapperUserToDTO() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public User modelMapperDTOToUser() {
+        return modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public GroupDTO modelMapperGroupToDTO() {
+        return modelMapper.map(group, GroupDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userMapperToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User userMapperToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public GroupDTO groupMapperToDTO() {
+        return groupMapper.toDTO(group);
+    }
+}
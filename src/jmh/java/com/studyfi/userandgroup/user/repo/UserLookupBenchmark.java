@@ -0,0 +1,53 @@
+package com.studyfi.userandgroup.user.repo;
+
+import com.studyfi.userandgroup.BenchmarkContext;
+import com.studyfi.userandgroup.user.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Email and reset-token lookups should cost the same at every table size thanks to their unique indexes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class UserLookupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserRepo userRepo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("userLookupBenchmark" + userCount);
+        BenchmarkContext.seedUsers(context, userCount);
+        context.getBean(JdbcTemplate.class).update("UPDATE user SET reset_token = CONCAT('token-', id)");
+        userRepo = context.getBean(UserRepo.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        return userRepo.findByEmail("user" + randomUserId() + "@studyfi.com");
+    }
+
+    @Benchmark
+    public User findByResetToken() {
+        return userRepo.findByResetToken("token-" + randomUserId());
+    }
+
+    private int randomUserId() {
+        return ThreadLocalRandom.current().nextInt(1, userCount + 1);
+    }
+}
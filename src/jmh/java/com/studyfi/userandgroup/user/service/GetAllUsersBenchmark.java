@@ -0,0 +1,42 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.BenchmarkContext;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of listing every user as the table grows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class GetAllUsersBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("getAllUsersBenchmark" + userCount);
+        BenchmarkContext.seedUsers(context, userCount);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDTO> getAllUsers() {
+        return userService.getAllUsers();
+    }
+}
@@ -0,0 +1,50 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Typeahead latency distribution per query (check the p0.99 lines) over a large synthetic user directory.
+// Single letters and prefixes shared by many surnames or emails are the expensive keystrokes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "ada", "alan", "barbara", "charles", "donald", "edsger", "frances", "grace", "john", "katherine",
+            "linus", "margaret", "niklaus", "radia", "shafi", "tim", "vint", "whitfield", "yukihiro", "zhang"
+    };
+
+    @Param({"1000000"})
+    private int userCount;
+
+    @Param({"a", "s", "su", "u", "gr", "marg", "surname4", "john sm", "user1", "user12345", "kath hop"})
+    private String query;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserSearchIndex(null);
+        Random random = new Random(42);
+        for (int id = 1; id <= userCount; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = "surname" + random.nextInt(50_000);
+            index.put(id, first + " " + last, "user" + id + "@studyfi.com");
+        }
+        index.put(userCount + 1, "John Smith", "john.smith@studyfi.com");
+        index.put(userCount + 2, "Katherine Hopper", "kh@studyfi.com");
+    }
+
+    @Benchmark
+    public List<UserSummaryDTO> typeahead() {
+        return index.search(query, 10);
+    }
+}
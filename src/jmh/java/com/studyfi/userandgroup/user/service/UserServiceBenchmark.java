@@ -0,0 +1,88 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.BenchmarkContext;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-call latency of the UserService hot paths against 10k seeded users in 100 groups
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int GROUPS = 100;
+
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("userServiceBenchmark");
+        BenchmarkContext.seedUsers(context, USERS);
+        BenchmarkContext.seedGroups(context, GROUPS, USERS);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO registerUser() {
+        UserDTO userDTO = profile("Registered user");
+        userDTO.setEmail("registered" + registrations.incrementAndGet() + "@studyfi.com");
+        return userService.registerUser(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO getUserById() {
+        return userService.getUserById(randomUserId());
+    }
+
+    @Benchmark
+    public void addUserToGroup() {
+        userService.addUserToGroup(randomUserId(), ThreadLocalRandom.current().nextInt(1, GROUPS + 1));
+    }
+
+    @Benchmark
+    public UserDTO updateUserProfile() {
+        int userId = randomUserId();
+        UserDTO userDTO = profile("User " + userId);
+        userDTO.setEmail("user" + userId + "@studyfi.com");
+        return userService.updateUserProfile(userId, userDTO, null);
+    }
+
+    @Benchmark
+    public String validatePassword() {
+        UserService.validatePassword(BenchmarkContext.PASSWORD);
+        return BenchmarkContext.PASSWORD;
+    }
+
+    private static int randomUserId() {
+        return ThreadLocalRandom.current().nextInt(1, USERS + 1);
+    }
+
+    private static UserDTO profile(String name) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName(name);
+        userDTO.setPassword(BenchmarkContext.PASSWORD);
+        userDTO.setPhoneContact("+94 77 123 4567");
+        userDTO.setBirthDate("2000-01-01");
+        userDTO.setCountry("Sri Lanka");
+        userDTO.setAboutMe("Benchmark profile");
+        userDTO.setCurrentAddress("Colombo");
+        return userDTO;
+    }
+}
@@ -0,0 +1,105 @@
+package com.studyfi.userandgroup.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encoding and decoding UserDTO and GroupDTO lists as JSON, CBOR and Smile, as the list endpoints would send them.
+// Payload sizes are printed once per trial, since JMH only reports time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"100", "5000"})
+    private int listSize;
+
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+    private ObjectWriter groupWriter;
+    private ObjectReader groupReader;
+
+    private List<UserDTO> users;
+    private List<GroupDTO> groups;
+    private byte[] encodedUsers;
+    private byte[] encodedGroups;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new JsonMapper();
+        };
+        userWriter = mapper.writerFor(new TypeReference<List<UserDTO>>() { });
+        userReader = mapper.readerFor(new TypeReference<List<UserDTO>>() { });
+        groupWriter = mapper.writerFor(new TypeReference<List<GroupDTO>>() { });
+        groupReader = mapper.readerFor(new TypeReference<List<GroupDTO>>() { });
+
+        users = new ArrayList<>(listSize);
+        groups = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            UserDTO user = new UserDTO();
+            user.setId(i);
+            user.setName("Student " + i);
+            user.setEmail("student" + i + "@studyfi.com");
+            user.setPhoneContact("+94 77 " + (1000000 + i));
+            user.setBirthDate("2000-01-01");
+            user.setCountry("Sri Lanka");
+            user.setAboutMe("Second-year computer science student who likes graph theory and late-night problem sets");
+            user.setCurrentAddress(i + " Galle Road, Colombo");
+            user.setVersion((long) i % 7);
+            users.add(user);
+
+            GroupDTO group = new GroupDTO();
+            group.setId(i);
+            group.setName("Study group " + i);
+            group.setDescription("Weekly problem sets and past papers for module " + i);
+            group.setVersion((long) i % 3);
+            groups.add(group);
+        }
+
+        encodedUsers = userWriter.writeValueAsBytes(users);
+        encodedGroups = groupWriter.writeValueAsBytes(groups);
+        System.out.printf("%n%s payload for %d items: users %d bytes, groups %d bytes%n",
+                format, listSize, encodedUsers.length, encodedGroups.length);
+    }
+
+    @Benchmark
+    public byte[] encodeUsers() throws IOException {
+        return userWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> decodeUsers() throws IOException {
+        return userReader.readValue(encodedUsers);
+    }
+
+    @Benchmark
+    public byte[] encodeGroups() throws IOException {
+        return groupWriter.writeValueAsBytes(groups);
+    }
+
+    @Benchmark
+    public List<GroupDTO> decodeGroups() throws IOException {
+        return groupReader.readValue(encodedGroups);
+    }
+}
@@ -0,0 +1,42 @@
+package com.studyfi.userandgroup.batch;
+
+// One requested id of a batch lookup; item is null and found is false when nothing has that id
+public class BatchEntryDTO<T> {
+    private Integer id;
+    private boolean found;
+    private T item;
+
+    public BatchEntryDTO() {
+    }
+
+    public BatchEntryDTO(Integer id, T item) {
+        this.id = id;
+        this.found = item != null;
+        this.item = item;
+    }
+
+    // Getter and Setter methods
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public void setItem(T item) {
+        this.item = item;
+    }
+}
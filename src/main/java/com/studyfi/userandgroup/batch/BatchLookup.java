@@ -0,0 +1,68 @@
+package com.studyfi.userandgroup.batch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Resolves a list of ids in one call instead of one request per id.
+// Ids already in the named cache are served from it; the rest are loaded with one IN query per chunk and cached.
+@Component
+public class BatchLookup {
+
+    private final CacheManager cacheManager;
+    private final int maxIds;
+    private final int chunkSize;
+
+    public BatchLookup(CacheManager cacheManager,
+                       @Value("${app.batch.max-ids:5000}") int maxIds,
+                       @Value("${app.batch.chunk-size:500}") int chunkSize) {
+        this.cacheManager = cacheManager;
+        this.maxIds = maxIds;
+        this.chunkSize = chunkSize;
+    }
+
+    // One entry per requested id, in request order (repeated ids are answered each time they appear)
+    public <T> List<BatchEntryDTO<T>> lookup(List<Integer> ids, String cacheName, Class<T> type,
+                                             Function<List<Integer>, List<T>> loader, Function<T, Integer> idOf) {
+        if (ids == null || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ids must be a list of numbers");
+        }
+        if (ids.size() > maxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxIds + " ids per batch");
+        }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Integer, T> found = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            T cached = cache != null ? cache.get(id, type) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += chunkSize) {
+            for (T item : loader.apply(misses.subList(from, Math.min(from + chunkSize, misses.size())))) {
+                Integer id = idOf.apply(item);
+                found.put(id, item);
+                if (cache != null) {
+                    cache.put(id, item);
+                }
+            }
+        }
+
+        List<BatchEntryDTO<T>> entries = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            entries.add(new BatchEntryDTO<>(id, found.get(id)));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,15 @@
+package com.studyfi.userandgroup.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Caches are Caffeine-backed; size, TTL and stats come from spring.cache.caffeine.spec.
+// Caching wraps the transaction advice so evictions only happen once the write has committed.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String GROUPS = "groups";
+}
@@ -27,6 +27,9 @@ public class MailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
     private String smtpStartTlsEnable;
 
+    @Value("${app.mail.smtp-timeout-ms:10000}")
+    private String smtpTimeoutMs;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
@@ -40,6 +43,11 @@ public class MailConfig {
         props.put("mail.smtp.starttls.enable", smtpStartTlsEnable);
         props.put("mail.smtp.ssl.trust", mailHost);
 
+        // Fail a stuck SMTP exchange instead of blocking the outbox dispatcher forever
+        props.put("mail.smtp.connectiontimeout", smtpTimeoutMs);
+        props.put("mail.smtp.timeout", smtpTimeoutMs);
+        props.put("mail.smtp.writetimeout", smtpTimeoutMs);
+
         return mailSender;
     }
 }
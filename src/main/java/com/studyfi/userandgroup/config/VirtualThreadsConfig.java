@@ -0,0 +1,23 @@
+package com.studyfi.userandgroup.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+// Spring Boot silently falls back to platform threads below Java 21, so say so when virtual threads were asked for
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    public VirtualThreadsConfig() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true has no effect on Java {}; requests still run on platform threads", javaVersion);
+        } else {
+            log.info("Serving requests on virtual threads");
+        }
+    }
+}
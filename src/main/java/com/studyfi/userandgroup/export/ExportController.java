@@ -0,0 +1,45 @@
+package com.studyfi.userandgroup.export;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // Dump users, groups and memberships (or the ones listed in include) as NDJSON, gzip-compressed when the client
+    // accepts it. Written synchronously rather than as a StreamingResponseBody so a long export is not cut off by the
+    // async request timeout.
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(@RequestParam(required = false) Set<ExportService.Entity> include,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Set<ExportService.Entity> entities = include == null || include.isEmpty()
+                ? EnumSet.allOf(ExportService.Entity.class) : include;
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (OutputStream gzip = new GZIPOutputStream(response.getOutputStream(), 64 * 1024)) {
+                exportService.export(entities, gzip);
+            }
+        } else {
+            exportService.export(entities, response.getOutputStream());
+        }
+    }
+}
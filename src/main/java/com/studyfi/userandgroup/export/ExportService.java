@@ -0,0 +1,105 @@
+package com.studyfi.userandgroup.export;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupJdbcRepo;
+import com.studyfi.userandgroup.membership.dto.MembershipEdgeDTO;
+import com.studyfi.userandgroup.membership.repo.MembershipRepo;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Full NDJSON dump of users, groups and memberships for analytics and backups.
+// Each line is a single-key object naming the record type: {"user": {...}}, {"group": {...}}, {"membership": {...}}.
+// Rows are written as they come off forward-only result sets, so heap use does not grow with the data.
+// All scans run in one read-only REPEATABLE READ transaction, so every membership refers to a user and group in the
+// same file. The last line is {"end": {...counts...}}; an export without it was cut off.
+@Service
+public class ExportService {
+
+    public enum Entity { USERS, GROUPS, MEMBERSHIPS }
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final GroupJdbcRepo groupJdbcRepo;
+    private final MembershipRepo membershipRepo;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+    private final ObjectWriter groupWriter;
+    private final ObjectWriter membershipWriter;
+    private final TransactionTemplate snapshotTransaction;
+
+    public ExportService(UserJdbcRepo userJdbcRepo, GroupJdbcRepo groupJdbcRepo, MembershipRepo membershipRepo,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userJdbcRepo = userJdbcRepo;
+        this.groupJdbcRepo = groupJdbcRepo;
+        this.membershipRepo = membershipRepo;
+        this.objectMapper = objectMapper;
+
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        // Serializers are resolved once, and the generator is only flushed by its buffer filling up, not per row.
+        // Null fields are left out, which keeps sparse profiles small on the wire.
+        ObjectMapper exportMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.userWriter = exportMapper.writerFor(UserDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.groupWriter = exportMapper.writerFor(GroupDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.membershipWriter = exportMapper.writerFor(MembershipEdgeDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(Set<Entity> entities, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Map<String, Long> counts = new LinkedHashMap<>();
+            snapshotTransaction.executeWithoutResult(tx -> {
+                if (entities.contains(Entity.USERS)) {
+                    userJdbcRepo.forEachUser(user -> writeLine(generator, "user", userWriter, user, counts));
+                }
+                if (entities.contains(Entity.GROUPS)) {
+                    groupJdbcRepo.forEachGroup(group -> writeLine(generator, "group", groupWriter, group, counts));
+                }
+                if (entities.contains(Entity.MEMBERSHIPS)) {
+                    MembershipEdgeDTO edge = new MembershipEdgeDTO();  // Reused: each row is written before the next is read
+                    membershipRepo.forEachMembership((userId, groupId) -> {
+                        edge.setUserId(userId);
+                        edge.setGroupId(groupId);
+                        writeLine(generator, "membership", membershipWriter, edge, counts);
+                    });
+                }
+            });
+
+            // Only reached when every scan finished
+            generator.writeStartObject();
+            generator.writeObjectField("end", counts);
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeLine(JsonGenerator generator, String type, ObjectWriter writer, Object value,
+                                  Map<String, Long> counts) {
+        counts.merge(type, 1L, Long::sum);
+        try {
+            generator.writeStartObject();
+            generator.writeFieldName(type);
+            writer.writeValue(generator, value);
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
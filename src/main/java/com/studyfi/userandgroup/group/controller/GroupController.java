@@ -1,10 +1,23 @@
 package com.studyfi.userandgroup.group.controller;
 
+import com.studyfi.userandgroup.batch.BatchEntryDTO;
 import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.dto.GroupPageDTO;
 import com.studyfi.userandgroup.group.service.GroupService;
+import com.studyfi.userandgroup.membership.dto.BulkMembershipResultDTO;
+import com.studyfi.userandgroup.membership.dto.MembershipAction;
+import com.studyfi.userandgroup.membership.service.MembershipService;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.web.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,27 +28,89 @@ public class GroupController {
     @Autowired
     private GroupService groupService;
 
+    @Autowired
+    private MembershipService membershipService;
+
     // Create a new group
     @PostMapping("/create")
     public GroupDTO createGroup(@RequestBody GroupDTO groupDTO) {
         return groupService.createGroup(groupDTO);
     }
 
-    // Update an existing group
+    // Update an existing group; with If-Match the update is refused (412) if the group changed in the meantime
     @PutMapping("/update/{groupId}")
-    public GroupDTO updateGroup(@PathVariable Integer groupId, @RequestBody GroupDTO groupDTO) {  // Changed Long to Integer
-        return groupService.updateGroup(groupId, groupDTO);
+    public ResponseEntity<GroupDTO> updateGroup(@PathVariable Integer groupId, @RequestBody GroupDTO groupDTO,  // Changed Long to Integer
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        GroupDTO updated = groupService.updateGroup(groupId, groupDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
-    // Get all groups
+    // Get all groups; the ETag comes from one aggregate query, so an unchanged list is a 304 without loading any group
     @GetMapping("/all")
-    public List<GroupDTO> getAllGroups() {
+    public List<GroupDTO> getAllGroups(WebRequest request) {
+        if (request.checkNotModified(groupService.getAllGroupsETag())) {
+            return null;
+        }
         return groupService.getAllGroups();
     }
 
-    // Get a group by ID
+    // Get groups page by page with member counts, sorted by id, name or memberCount
+    @GetMapping("/page")
+    public GroupPageDTO getGroupsPage(@RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size,
+                                      @RequestParam(defaultValue = "id") String sort,
+                                      @RequestParam(defaultValue = "asc") String direction) {
+        return groupService.getGroupsPage(page, size, sort, direction);
+    }
+
+    // Search groups by name or description (prefix or substring), ranked and paginated
+    @GetMapping("/search")
+    public GroupPageDTO searchGroups(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return groupService.searchGroups(q, page, size);
+    }
+
+    // Get a group by ID; answers 304 with no body when If-None-Match still names the current version
     @GetMapping("/{groupId}")
-    public GroupDTO getGroupById(@PathVariable Integer groupId) {  // Changed Long to Integer
-        return groupService.getGroupById(groupId);
+    public GroupDTO getGroupById(@PathVariable Integer groupId, WebRequest request) {  // Changed Long to Integer
+        GroupDTO group = groupService.getGroupById(groupId);
+        if (request.checkNotModified(ETags.of(group.getVersion()))) {
+            return null;
+        }
+        return group;
+    }
+
+    // Get many groups in one call; the body is a JSON array of ids (see app.batch.max-ids).
+    // The answer has one entry per id in the same order, with found=false for ids that match no group.
+    @PostMapping("/batch")
+    public List<BatchEntryDTO<GroupDTO>> getGroupsByIds(@RequestBody List<Integer> groupIds) {
+        return groupService.getGroupsByIds(groupIds);
+    }
+
+    // Ids of the users in a group
+    @GetMapping("/{groupId}/members")
+    public int[] getMembersOfGroup(@PathVariable Integer groupId) {
+        return membershipService.getMemberIdsOfGroup(groupId);
+    }
+
+    // Id, name and email of each member of a group, for rosters that do not need full profiles
+    @GetMapping("/{groupId}/members/summary")
+    public List<UserSummaryDTO> getMemberSummaries(@PathVariable Integer groupId) {
+        return membershipService.getMemberSummaries(groupId);
+    }
+
+    // Add (action=ADD) or remove (action=REMOVE) many users at once; body is a JSON array of user ids
+    @PostMapping(value = "/{groupId}/members/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkMembershipResultDTO bulkUpdateMembers(@PathVariable Integer groupId, @RequestParam MembershipAction action,
+                                                     @RequestBody List<Integer> userIds) {
+        return membershipService.applyBulk(groupId, action, userIds.iterator());
+    }
+
+    // Same as above, streaming the user ids from an NDJSON body instead of one large array
+    @PostMapping(value = "/{groupId}/members/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkMembershipResultDTO bulkUpdateMembersStreamed(@PathVariable Integer groupId, @RequestParam MembershipAction action,
+                                                             InputStream body) throws IOException {
+        return membershipService.applyBulk(groupId, action, body);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ public class GroupDTO {
     private Integer id;
     private String name;
     private String description;
+    private Long version;
 
     // Getter and Setter methods
     public Integer getId() {
@@ -29,4 +30,12 @@ public class GroupDTO {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
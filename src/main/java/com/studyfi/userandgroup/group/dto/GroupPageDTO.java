@@ -0,0 +1,63 @@
+package com.studyfi.userandgroup.group.dto;
+
+import java.util.List;
+
+public class GroupPageDTO {
+    private List<GroupSummaryDTO> groups;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public GroupPageDTO() {
+    }
+
+    public GroupPageDTO(List<GroupSummaryDTO> groups, int page, int size, long totalElements, int totalPages) {
+        this.groups = groups;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    // Getter and Setter methods
+    public List<GroupSummaryDTO> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<GroupSummaryDTO> groups) {
+        this.groups = groups;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
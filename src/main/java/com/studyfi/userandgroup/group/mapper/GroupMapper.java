@@ -0,0 +1,29 @@
+package com.studyfi.userandgroup.group.mapper;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.model.Group;
+import org.springframework.stereotype.Component;
+
+// Maps Group to and from GroupDTO with plain getters and setters
+@Component
+public class GroupMapper {
+
+    // The lazy users collection is never touched
+    public GroupDTO toDTO(Group group) {
+        GroupDTO groupDTO = new GroupDTO();
+        groupDTO.setId(group.getId());
+        groupDTO.setName(group.getName());
+        groupDTO.setDescription(group.getDescription());
+        groupDTO.setVersion(group.getVersion());
+        return groupDTO;
+    }
+
+    // The version is never taken from a client
+    public Group toEntity(GroupDTO groupDTO) {
+        Group group = new Group();
+        group.setId(groupDTO.getId());
+        group.setName(groupDTO.getName());
+        group.setDescription(groupDTO.getDescription());
+        return group;
+    }
+}
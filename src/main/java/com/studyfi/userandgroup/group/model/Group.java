@@ -19,6 +19,9 @@ public class Group {
 
     private String description;
 
+    @Version
+    private long version;  // Bumped on every update; drives ETags and If-Match checks
+
     @ManyToMany(mappedBy = "groups")
     private List<User> users; // Many-to-many relationship with User
 
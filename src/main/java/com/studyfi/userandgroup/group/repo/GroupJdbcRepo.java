@@ -0,0 +1,57 @@
+package com.studyfi.userandgroup.group.repo;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Plain JDBC access for group reads that must not go through the persistence context
+@Repository
+public class GroupJdbcRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.stream.fetch-size:500}")
+    private int fetchSize;
+
+    public GroupJdbcRepo(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // Hand every group to the consumer as it comes off a forward-only, read-only result set
+    public void forEachGroup(Consumer<GroupDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, name, description, version FROM study_group ORDER BY id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapGroup(resultSet)));
+    }
+
+    // The groups with the given ids, in no particular order; ids with no group are skipped
+    public List<GroupDTO> findByIds(Collection<Integer> ids) {
+        return namedParameterJdbcTemplate.query("SELECT id, name, description, version FROM study_group WHERE id IN (:ids)",
+                Map.of("ids", ids), (resultSet, rowNum) -> mapGroup(resultSet));
+    }
+
+    private GroupDTO mapGroup(ResultSet resultSet) throws SQLException {
+        GroupDTO group = new GroupDTO();
+        group.setId(resultSet.getInt("id"));
+        group.setName(resultSet.getString("name"));
+        group.setDescription(resultSet.getString("description"));
+        group.setVersion(resultSet.getLong("version"));
+        return group;
+    }
+}
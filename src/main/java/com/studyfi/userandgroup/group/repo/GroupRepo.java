@@ -1,7 +1,23 @@
 package com.studyfi.userandgroup.group.repo;
 
 import com.studyfi.userandgroup.group.model.Group;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface GroupRepo extends JpaRepository<Group, Integer> {  // Changed Long to Integer
+
+    // One page of groups with member counts aggregated from the user_group join table
+    @Query(value = "SELECT g.id AS id, g.name AS name, g.description AS description, COUNT(ug.user_id) AS memberCount " +
+            "FROM study_group g LEFT JOIN user_group ug ON ug.group_id = g.id " +
+            "GROUP BY g.id, g.name, g.description",
+            countQuery = "SELECT COUNT(*) FROM study_group",
+            nativeQuery = true)
+    Page<GroupSummary> findGroupSummaries(Pageable pageable);
+
+    // "count-maxId-versionSum": changes whenever a group is created (count, max id) or updated (version sum)
+    @Query("SELECT CONCAT(CAST(COUNT(g) AS String), '-', CAST(COALESCE(MAX(g.id), 0) AS String), '-', " +
+            "CAST(COALESCE(SUM(g.version), 0) AS String)) FROM Group g")
+    String findCollectionVersion();
 }
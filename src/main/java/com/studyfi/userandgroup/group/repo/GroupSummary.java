@@ -0,0 +1,12 @@
+package com.studyfi.userandgroup.group.repo;
+
+// Projection of a group row together with its member count
+public interface GroupSummary {
+    Integer getId();
+
+    String getName();
+
+    String getDescription();
+
+    Long getMemberCount();
+}
@@ -0,0 +1,343 @@
+package com.studyfi.userandgroup.group.service;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupJdbcRepo;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+
+// In-memory search index over group names and descriptions, with Roaring bitmaps of group ids as posting lists.
+// Word maps answer prefix queries and trigram maps answer substring queries. Results are ranked in tiers:
+// exact name, name prefix, word prefix in name, substring of name, word prefix in description,
+// substring of description; ids ascend within a tier. Every tier is a bitmap, so a page only touches
+// the entries it returns, and only the tiers a page reaches are narrowed to drop the ids ranked above them.
+@Component
+public class GroupSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    private final GroupJdbcRepo groupJdbcRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, RoaringBitmap> exactNames = new HashMap<>();
+    private final NavigableMap<String, RoaringBitmap> nameFirstWords = new TreeMap<>();
+    private final NavigableMap<String, RoaringBitmap> nameWords = new TreeMap<>();
+    private final NavigableMap<String, RoaringBitmap> descriptionWords = new TreeMap<>();
+    private final Map<String, RoaringBitmap> nameTrigrams = new HashMap<>();
+    private final Map<String, RoaringBitmap> descriptionTrigrams = new HashMap<>();
+
+    public GroupSearchIndex(GroupJdbcRepo groupJdbcRepo) {
+        this.groupJdbcRepo = groupJdbcRepo;
+    }
+
+    // One indexed group, with its text already lower-cased for matching
+    public record Entry(Integer id, String name, String description, String nameKey, String descriptionKey) {
+    }
+
+    // One page of ranked matches. The total is exact for single-word queries of up to three characters. For longer or
+    // multi-word queries it counts every candidate: a group sharing only the first word or every trigram of the query
+    // is included unless the page walked past it and found it matches no tier.
+    public record Result(List<Entry> entries, int total) {
+    }
+
+    // One ranking tier: its candidate ids, the check a candidate must pass when the bitmap alone is not exact,
+    // and whether a later tier's candidates already include all of its own
+    private record Tier(RoaringBitmap ids, BiPredicate<Entry, String> check, boolean covered) {
+    }
+
+    // Load every group; runs before the web server starts taking requests
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            for (Map<?, ?> map : List.of(entries, exactNames, nameFirstWords, nameWords, descriptionWords,
+                    nameTrigrams, descriptionTrigrams)) {
+                map.clear();
+            }
+            groupJdbcRepo.forEachGroup(group -> index(toEntry(group)));
+            nameTrigrams.values().forEach(RoaringBitmap::runOptimize);
+            descriptionTrigrams.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built group search index over {} groups in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    // Add a group or replace what is indexed for it
+    public void put(GroupDTO group) {
+        Entry entry = toEntry(group);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(entry.id());
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(String query, int page, int size) {
+        String key = normalize(query).trim();
+        if (key.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Tier> tiers = tiers(key);
+            int total = countDistinct(tiers);
+
+            // A long, so a huge page number cannot overflow into a negative offset; past the last match the page is empty
+            long skip = (long) page * size;
+            if (skip >= total) {
+                return new Result(List.of(), total);
+            }
+
+            List<Entry> results = new ArrayList<>(size);
+            RoaringBitmap exactAbove = new RoaringBitmap();  // Ids of the exact tiers already walked, all ranked there
+            for (int t = 0; t < tiers.size() && results.size() < size; t++) {
+                Tier tier = tiers.get(t);
+                // Only a tier the page reaches pays for removing the ids ranked above it. A candidate of an inexact
+                // tier is only ranked there if it passes the check, so those are looked at one id at a time.
+                if (t > 0 && tiers.get(t - 1).check() == null) {
+                    exactAbove.or(tiers.get(t - 1).ids());
+                }
+                RoaringBitmap tierIds = exactAbove.isEmpty() ? tier.ids() : RoaringBitmap.andNot(tier.ids(), exactAbove);
+                List<Tier> inexactAbove = tiers.subList(0, t).stream().filter(above -> above.check() != null).toList();
+                if (tier.check() == null) {
+                    // Exact tier: jump straight to the first id of the page
+                    if (!inexactAbove.isEmpty()) {
+                        tierIds = RoaringBitmap.andNot(tierIds, rankedAbove(inexactAbove, tierIds, key));
+                    }
+                    int cardinality = tierIds.getCardinality();
+                    if (skip >= cardinality) {
+                        skip -= cardinality;
+                        continue;
+                    }
+                    PeekableIntIterator ids = tierIds.getIntIterator();
+                    ids.advanceIfNeeded(tierIds.select((int) skip));
+                    skip = 0;
+                    while (ids.hasNext() && results.size() < size) {
+                        results.add(entries.get(ids.next()));
+                    }
+                } else {
+                    PeekableIntIterator ids = tierIds.getIntIterator();
+                    while (ids.hasNext() && results.size() < size) {
+                        Entry entry = entries.get(ids.next());
+                        if (rankedAbove(inexactAbove, entry, key)) {
+                            continue;
+                        }
+                        if (!tier.check().test(entry, key)) {
+                            // A lower tier may still rank it; otherwise it never matched
+                            if (!candidateBelow(tiers, t, entry.id())) {
+                                total--;
+                            }
+                        } else if (skip > 0) {
+                            skip--;
+                        } else {
+                            results.add(entry);
+                        }
+                    }
+                }
+            }
+            return new Result(results, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Candidate bitmaps per tier, in rank order; a tier's ids can also appear in the tiers above it.
+    // They may be the index's own postings, so they are never modified.
+    private List<Tier> tiers(String key) {
+        String token = firstWord(key);
+        boolean singleWord = token.equals(key);
+        boolean substring = key.length() >= GRAM;
+        boolean singleGram = key.length() == GRAM;  // Longer keys can match every trigram without being a substring
+
+        // An exact name starts with the first word of the key, and a name's first word is one of its words
+        List<Tier> tiers = new ArrayList<>();
+        addTier(tiers, exactNames.get(key), null, !token.isEmpty());
+        if (!token.isEmpty()) {
+            addTier(tiers, prefixed(nameFirstWords, token),
+                    singleWord ? null : (entry, k) -> entry.nameKey().startsWith(k), true);
+            addTier(tiers, prefixed(nameWords, token),
+                    singleWord ? null : (entry, k) -> startsWord(entry.nameKey(), k), false);
+        }
+        if (substring) {
+            addTier(tiers, allGrams(nameTrigrams, key),
+                    singleGram ? null : (entry, k) -> entry.nameKey().contains(k), false);
+        }
+        if (!token.isEmpty()) {
+            addTier(tiers, prefixed(descriptionWords, token),
+                    singleWord ? null : (entry, k) -> startsWord(entry.descriptionKey(), k), false);
+        }
+        if (substring) {
+            addTier(tiers, allGrams(descriptionTrigrams, key),
+                    singleGram ? null : (entry, k) -> entry.descriptionKey().contains(k), false);
+        }
+        return tiers;
+    }
+
+    // Whether one of these inexact tiers ranks the entry: it is a candidate there and passes the check
+    private static boolean rankedAbove(List<Tier> inexactTiers, Entry entry, String key) {
+        for (Tier tier : inexactTiers) {
+            if (tier.ids().contains(entry.id()) && tier.check().test(entry, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The ids that one of these inexact tiers ranks
+    private RoaringBitmap rankedAbove(List<Tier> inexactTiers, RoaringBitmap ids, String key) {
+        RoaringBitmap ranked = new RoaringBitmap();
+        for (Tier tier : inexactTiers) {
+            RoaringBitmap.and(ids, tier.ids()).forEach((int id) -> {
+                if (tier.check().test(entries.get(id), key)) {
+                    ranked.add(id);
+                }
+            });
+        }
+        return ranked;
+    }
+
+    private static boolean candidateBelow(List<Tier> tiers, int t, int id) {
+        for (Tier tier : tiers.subList(t + 1, tiers.size())) {
+            if (tier.ids().contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Number of ids in any tier, before candidates of inexact tiers are checked; counts two tiers without a union
+    private static int countDistinct(List<Tier> tiers) {
+        List<RoaringBitmap> sets = tiers.stream().filter(tier -> !tier.covered()).map(Tier::ids).toList();
+        return switch (sets.size()) {
+            case 0 -> 0;
+            case 1 -> sets.get(0).getCardinality();
+            case 2 -> RoaringBitmap.orCardinality(sets.get(0), sets.get(1));
+            default -> FastAggregation.or(sets.iterator()).getCardinality();
+        };
+    }
+
+    private static void addTier(List<Tier> tiers, RoaringBitmap candidates, BiPredicate<Entry, String> check, boolean covered) {
+        if (candidates != null && !candidates.isEmpty()) {
+            tiers.add(new Tier(candidates, check, covered));
+        }
+    }
+
+    // Union of the postings of every word starting with the prefix; a single posting is returned as is
+    private static RoaringBitmap prefixed(NavigableMap<String, RoaringBitmap> words, String prefix) {
+        Collection<RoaringBitmap> postings = words.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+        if (postings.size() == 1) {
+            return postings.iterator().next();
+        }
+        return postings.isEmpty() ? null : FastAggregation.or(postings.iterator());
+    }
+
+    // Intersection of the postings of every trigram of the key
+    private static RoaringBitmap allGrams(Map<String, RoaringBitmap> trigrams, String key) {
+        List<RoaringBitmap> postings = new ArrayList<>();
+        for (String gram : grams(key)) {
+            RoaringBitmap posting = trigrams.get(gram);
+            if (posting == null) {
+                return null;
+            }
+            postings.add(posting);
+        }
+        return FastAggregation.and(postings.iterator());
+    }
+
+    // Whether the key occurs at the start of some word of the text
+    private static boolean startsWord(String text, String key) {
+        for (int at = text.indexOf(key); at >= 0; at = text.indexOf(key, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void index(Entry entry) {
+        entries.put(entry.id(), entry);
+        forEachPosting(entry, (postings, term) -> postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(entry.id()));
+    }
+
+    private void unindex(Entry entry) {
+        entries.remove(entry.id());
+        forEachPosting(entry, (postings, term) -> {
+            RoaringBitmap posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(entry.id());
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private interface PostingVisitor {
+        void visit(Map<String, RoaringBitmap> postings, String term);
+    }
+
+    // Every posting list the entry belongs in
+    private void forEachPosting(Entry entry, PostingVisitor visitor) {
+        visitor.visit(exactNames, entry.nameKey());
+        List<String> words = words(entry.nameKey());
+        if (!words.isEmpty()) {
+            visitor.visit(nameFirstWords, words.get(0));
+        }
+        new HashSet<>(words).forEach(word -> visitor.visit(nameWords, word));
+        new HashSet<>(words(entry.descriptionKey())).forEach(word -> visitor.visit(descriptionWords, word));
+        grams(entry.nameKey()).forEach(gram -> visitor.visit(nameTrigrams, gram));
+        grams(entry.descriptionKey()).forEach(gram -> visitor.visit(descriptionTrigrams, gram));
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String firstWord(String key) {
+        List<String> words = words(key);
+        return words.isEmpty() ? "" : words.get(0);
+    }
+
+    private static Entry toEntry(GroupDTO group) {
+        return new Entry(group.getId(), group.getName(), group.getDescription(),
+                normalize(group.getName()), normalize(group.getDescription()));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
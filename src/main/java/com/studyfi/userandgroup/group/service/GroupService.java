@@ -1,53 +1,157 @@
 package com.studyfi.userandgroup.group.service;
 
+import com.studyfi.userandgroup.batch.BatchEntryDTO;
+import com.studyfi.userandgroup.batch.BatchLookup;
+import com.studyfi.userandgroup.config.CacheConfig;
 import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.dto.GroupPageDTO;
+import com.studyfi.userandgroup.group.dto.GroupSummaryDTO;
+import com.studyfi.userandgroup.group.mapper.GroupMapper;
 import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.group.repo.GroupJdbcRepo;
 import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.group.repo.GroupSummary;
+import com.studyfi.userandgroup.membership.service.MembershipIndex;
+import com.studyfi.userandgroup.web.ETags;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 @Service
 public class GroupService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Columns clients may sort the group listing by
+    private static final List<String> SORTABLE_FIELDS = List.of("id", "name", "memberCount");
+
     private final GroupRepo groupRepo;  // Ensure final field is properly initialized
-    private final ModelMapper modelMapper;
+    private final GroupMapper groupMapper;
+    private final GroupSearchIndex groupSearchIndex;
+    private final MembershipIndex membershipIndex;
+    private final GroupJdbcRepo groupJdbcRepo;
+    private final BatchLookup batchLookup;
 
     @Autowired  // Use this annotation to tell Spring to inject dependencies
-    public GroupService(GroupRepo groupRepo, ModelMapper modelMapper) {
+    public GroupService(GroupRepo groupRepo, GroupMapper groupMapper, GroupSearchIndex groupSearchIndex,
+                        MembershipIndex membershipIndex, GroupJdbcRepo groupJdbcRepo, BatchLookup batchLookup) {
         this.groupRepo = groupRepo;
-        this.modelMapper = modelMapper;
+        this.groupMapper = groupMapper;
+        this.groupSearchIndex = groupSearchIndex;
+        this.membershipIndex = membershipIndex;
+        this.groupJdbcRepo = groupJdbcRepo;
+        this.batchLookup = batchLookup;
     }
 
     // Create a new group
+    @CachePut(cacheNames = CacheConfig.GROUPS, key = "#result.id")
     public GroupDTO createGroup(GroupDTO groupDTO) {
-        Group group = modelMapper.map(groupDTO, Group.class);
+        Group group = groupMapper.toEntity(groupDTO);
         groupRepo.save(group);
-        return modelMapper.map(group, GroupDTO.class);
+        GroupDTO created = groupMapper.toDTO(group);
+        groupSearchIndex.put(created);
+        return created;
     }
 
-    // Update an existing group
-    public GroupDTO updateGroup(Integer groupId, GroupDTO groupDTO) {
+    // Update an existing group; expectedVersion (from If-Match, may be null) must still be the stored version
+    @CacheEvict(cacheNames = CacheConfig.GROUPS, key = "#groupId")
+    public GroupDTO updateGroup(Integer groupId, GroupDTO groupDTO, Long expectedVersion) {
         Group group = groupRepo.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        ETags.checkVersion(group.getVersion(), expectedVersion);
         group.setName(groupDTO.getName());
         group.setDescription(groupDTO.getDescription());
-        groupRepo.save(group);
-        return modelMapper.map(group, GroupDTO.class);
+        try {
+            group = groupRepo.save(group);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Group was modified concurrently");
+        }
+        GroupDTO updated = groupMapper.toDTO(group);
+        groupSearchIndex.put(updated);
+        return updated;
+    }
+
+    // ETag for the whole group list from one aggregate query: any create or update changes it
+    public String getAllGroupsETag() {
+        return "\"" + groupRepo.findCollectionVersion() + "\"";
     }
 
     // Get all groups
     public List<GroupDTO> getAllGroups() {
         return groupRepo.findAll().stream()
-                .map(group -> modelMapper.map(group, GroupDTO.class))
+                .map(groupMapper::toDTO)
+                .toList();
+    }
+
+    // Get one page of groups with their member counts
+    public GroupPageDTO getGroupsPage(int page, int size, String sortBy, String direction) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort groups by " + sortBy);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Always break ties on id so that pages stay stable
+        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
+        if (!sortBy.equals("id")) {
+            sort = sort.and(Sort.by("id"));
+        }
+
+        Page<GroupSummary> groups = groupRepo.findGroupSummaries(PageRequest.of(Math.max(page, 0), pageSize, sort));
+        List<GroupSummaryDTO> summaries = groups.stream()
+                .map(this::toSummaryDTO)
+                .toList();
+        return new GroupPageDTO(summaries, groups.getNumber(), groups.getSize(),
+                groups.getTotalElements(), groups.getTotalPages());
+    }
+
+    // Search group names and descriptions by prefix or substring, best matches first
+    public GroupPageDTO searchGroups(String query, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        GroupSearchIndex.Result result = groupSearchIndex.search(query, pageNumber, pageSize);
+        List<GroupSummaryDTO> groups = result.entries().stream()
+                .map(entry -> {
+                    GroupSummaryDTO summary = new GroupSummaryDTO();
+                    summary.setId(entry.id());
+                    summary.setName(entry.name());
+                    summary.setDescription(entry.description());
+                    summary.setMemberCount(membershipIndex.memberCount(entry.id()));
+                    return summary;
+                })
                 .toList();
+        int totalPages = (result.total() + pageSize - 1) / pageSize;
+        return new GroupPageDTO(groups, pageNumber, pageSize, result.total(), totalPages);
     }
 
-    // Get a group by ID
+    private GroupSummaryDTO toSummaryDTO(GroupSummary group) {
+        GroupSummaryDTO summary = new GroupSummaryDTO();
+        summary.setId(group.getId());
+        summary.setName(group.getName());
+        summary.setDescription(group.getDescription());
+        summary.setMemberCount(group.getMemberCount());
+        return summary;
+    }
+
+    // Get a group by ID, served from the cache when possible
+    @Cacheable(cacheNames = CacheConfig.GROUPS, key = "#groupId")
     public GroupDTO getGroupById(Integer groupId) {
         Group group = groupRepo.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
-        return modelMapper.map(group, GroupDTO.class);
+        return groupMapper.toDTO(group);
+    }
+
+    // Get many groups by ID in request order, from the cache where possible and chunked IN queries otherwise
+    public List<BatchEntryDTO<GroupDTO>> getGroupsByIds(List<Integer> groupIds) {
+        return batchLookup.lookup(groupIds, CacheConfig.GROUPS, GroupDTO.class, groupJdbcRepo::findByIds, GroupDTO::getId);
     }
 }
@@ -0,0 +1,47 @@
+package com.studyfi.userandgroup.mail.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+// An email waiting in the outbox until the dispatcher delivers it
+@Data
+@Entity
+@Table(name = "mail_outbox", indexes = @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class OutboxMail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;  // The dispatcher skips the mail until this time (for SENDING mails, the end of the claim)
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;  // Which dispatcher run claimed the mail
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "sent_at")
+    private Date sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,8 @@
+package com.studyfi.userandgroup.mail.model;
+
+public enum OutboxStatus {
+    PENDING,  // Waiting to be sent, possibly after an earlier failed attempt
+    SENDING,  // Claimed by a dispatcher run until next_attempt_at; picked up again if that run dies
+    SENT,
+    FAILED    // Gave up after the maximum number of attempts
+}
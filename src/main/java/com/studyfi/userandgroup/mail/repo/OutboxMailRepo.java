@@ -0,0 +1,43 @@
+package com.studyfi.userandgroup.mail.repo;
+
+import com.studyfi.userandgroup.mail.model.OutboxMail;
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface OutboxMailRepo extends JpaRepository<OutboxMail, Long> {
+
+    // Oldest mails in the given statuses that are due
+    @Query("SELECT m.id FROM OutboxMail m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<Long> findDueIds(@Param("statuses") Collection<OutboxStatus> statuses, @Param("now") Date now, Limit limit);
+
+    // Claim due mails for one dispatcher run until leaseUntil. The due check is repeated in the UPDATE itself,
+    // so of two runs racing for the same mail only one changes the row.
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMail m SET m.status = com.studyfi.userandgroup.mail.model.OutboxStatus.SENDING, "
+            + "m.claimToken = :token, m.nextAttemptAt = :leaseUntil "
+            + "WHERE m.id IN :ids AND m.status IN :statuses AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") List<Long> ids, @Param("statuses") Collection<OutboxStatus> statuses, @Param("now") Date now,
+              @Param("token") String token, @Param("leaseUntil") Date leaseUntil);
+
+    List<OutboxMail> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    // Keyset batch of mails in the given statuses created before the given time
+    @Query("SELECT m.id FROM OutboxMail m WHERE m.status IN :statuses AND m.createdAt < :before AND m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsCreatedBefore(@Param("statuses") Collection<OutboxStatus> statuses, @Param("before") Date before,
+                                    @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxMail m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
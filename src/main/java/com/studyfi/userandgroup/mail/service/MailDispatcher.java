@@ -0,0 +1,173 @@
+package com.studyfi.userandgroup.mail.service;
+
+import com.studyfi.userandgroup.mail.model.OutboxMail;
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Drains the mail outbox in the background, sending each batch over a single SMTP connection.
+// A batch is claimed (status SENDING, with a lease) before anything is sent, so two app instances or overlapping
+// runs never send the same mail twice. If a run dies mid-batch, its mails are sent again once the lease runs out.
+@Service
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final long MAX_BACKOFF_MS = 3600 * 1000;  // Never wait more than an hour between attempts
+
+    // Pending mails, and mails whose claim expired because the run holding them never finished
+    private static final List<OutboxStatus> CLAIMABLE = List.of(OutboxStatus.PENDING, OutboxStatus.SENDING);
+
+    private final OutboxMailRepo outboxMailRepo;
+    private final JavaMailSender mailSender;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter gaveUpCounter;
+
+    @Value("${app.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${app.mail.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    public MailDispatcher(OutboxMailRepo outboxMailRepo, JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.outboxMailRepo = outboxMailRepo;
+        this.mailSender = mailSender;
+
+        this.sendTimer = Timer.builder("mail.send")
+                .description("Time spent handing a batch of mails to the SMTP server")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.sent")
+                .description("Mails accepted by the SMTP server")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("mail.failed")
+                .description("Mails the SMTP server did not accept")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        this.gaveUpCounter = Counter.builder("mail.failed")
+                .description("Mails the SMTP server did not accept")
+                .tag("outcome", "gave_up")
+                .register(meterRegistry);
+    }
+
+    // Send everything that is due, one batch at a time; returns the number of mails sent
+    @Scheduled(fixedDelayString = "${app.mail.dispatch-interval-ms:5000}")
+    public int dispatchPending() {
+        int sent = 0;
+        List<Long> dueIds;
+        do {
+            Date now = new Date();
+            dueIds = outboxMailRepo.findDueIds(CLAIMABLE, now, Limit.of(batchSize));
+            if (dueIds.isEmpty()) {
+                break;
+            }
+            // Only the rows this run managed to claim are sent; another run may have taken the rest
+            String token = UUID.randomUUID().toString();
+            if (outboxMailRepo.claim(dueIds, CLAIMABLE, now, token, new Date(now.getTime() + claimLeaseMs)) > 0) {
+                sent += sendBatch(outboxMailRepo.findByClaimTokenOrderByIdAsc(token));
+            }
+        } while (dueIds.size() == batchSize);
+        return sent;
+    }
+
+    private int sendBatch(List<OutboxMail> batch) {
+        // Keyed by identity: SimpleMailMessage equality is by value, and failures are reported per message instance
+        Map<SimpleMailMessage, OutboxMail> messages = new IdentityHashMap<>();
+        for (OutboxMail mail : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getRecipient());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            messages.put(message, mail);
+        }
+
+        Map<Object, Exception> failures;
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+            failures = Map.of();
+        } catch (MailSendException ex) {
+            failures = ex.getFailedMessages();
+        } catch (MailException ex) {
+            failures = new IdentityHashMap<>();
+            for (SimpleMailMessage message : messages.keySet()) {
+                failures.put(message, ex);
+            }
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        Date now = new Date();
+        int sent = 0;
+        for (Map.Entry<SimpleMailMessage, OutboxMail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue(), now);
+                sent++;
+            } else {
+                markFailed(entry.getValue(), failure, now);
+            }
+        }
+        outboxMailRepo.saveAll(batch);
+        sentCounter.increment(sent);
+        return sent;
+    }
+
+    private void markSent(OutboxMail mail, Date now) {
+        mail.setStatus(OutboxStatus.SENT);
+        mail.setSentAt(now);
+        mail.setLastError(null);
+        mail.setClaimToken(null);
+    }
+
+    // Retry with exponential backoff until the mail has used up its attempts
+    private void markFailed(OutboxMail mail, Exception failure, Date now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(String.valueOf(failure.getMessage()), 1000));
+        mail.setClaimToken(null);
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(OutboxStatus.FAILED);
+            gaveUpCounter.increment();
+            log.error("Giving up on mail {} to {} after {} attempts", mail.getId(), mail.getRecipient(), attempts, failure);
+            return;
+        }
+
+        mail.setStatus(OutboxStatus.PENDING);
+        retryCounter.increment();
+        long backoff = Math.min(retryBackoffMs << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+        mail.setNextAttemptAt(new Date(now.getTime() + backoff));
+        log.warn("Sending mail {} failed (attempt {}), retrying in {} ms: {}", mail.getId(), attempts, backoff, failure.getMessage());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
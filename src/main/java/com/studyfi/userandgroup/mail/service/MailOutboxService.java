@@ -0,0 +1,35 @@
+package com.studyfi.userandgroup.mail.service;
+
+import com.studyfi.userandgroup.mail.model.OutboxMail;
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+@Service
+public class MailOutboxService {
+
+    private final OutboxMailRepo outboxMailRepo;
+
+    public MailOutboxService(OutboxMailRepo outboxMailRepo) {
+        this.outboxMailRepo = outboxMailRepo;
+    }
+
+    // Queue an email; it is only sent if the caller's transaction commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String body) {
+        Date now = new Date();
+
+        OutboxMail mail = new OutboxMail();
+        mail.setRecipient(recipient);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus(OutboxStatus.PENDING);
+        mail.setCreatedAt(now);
+        mail.setNextAttemptAt(now);
+        outboxMailRepo.save(mail);
+    }
+}
@@ -0,0 +1,122 @@
+package com.studyfi.userandgroup.maintenance;
+
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Clears expired password reset tokens and deletes delivered or abandoned outbox mail.
+// Rows are walked in id order a batch at a time, and each batch is its own short statement and transaction,
+// so row locks on user and mail_outbox are only ever held for one batch.
+@Component
+public class PurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgeJob.class);
+
+    private static final Set<OutboxStatus> FINISHED = EnumSet.of(OutboxStatus.SENT, OutboxStatus.FAILED);
+
+    private final UserRepo userRepo;
+    private final OutboxMailRepo outboxMailRepo;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final Duration outboxRetention;
+    private final Timer runTimer;
+    private final Counter resetTokensCleared;
+    private final Counter outboxMailDeleted;
+
+    public PurgeJob(UserRepo userRepo, OutboxMailRepo outboxMailRepo, MeterRegistry meterRegistry,
+                    @Value("${app.purge.batch-size:500}") int batchSize,
+                    @Value("${app.purge.batch-pause-ms:50}") long batchPauseMs,
+                    @Value("${app.purge.outbox-retention:7d}") Duration outboxRetention) {
+        this.userRepo = userRepo;
+        this.outboxMailRepo = outboxMailRepo;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.outboxRetention = outboxRetention;
+
+        this.runTimer = Timer.builder("purge.run")
+                .description("Time taken by one purge run")
+                .register(meterRegistry);
+        this.resetTokensCleared = Counter.builder("purge.reset.tokens.cleared")
+                .description("Expired password reset tokens removed from user rows")
+                .register(meterRegistry);
+        this.outboxMailDeleted = Counter.builder("purge.outbox.deleted")
+                .description("Sent or failed outbox mails deleted after the retention period")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.purge.cron:0 */10 * * * *}")
+    public void purge() {
+        runTimer.record(() -> {
+            int tokens = purgeExpiredResetTokens();
+            int mails = purgeFinishedOutboxMail();
+            if (tokens > 0 || mails > 0) {
+                log.info("Purged {} expired reset tokens and {} outbox mails", tokens, mails);
+            }
+        });
+    }
+
+    // Returns the number of users whose reset token was cleared
+    public int purgeExpiredResetTokens() {
+        Date now = new Date();
+        int cleared = 0;
+        Integer afterId = 0;
+        List<Integer> ids;
+        do {
+            ids = userRepo.findExpiredResetTokenIds(now, afterId, Limit.of(batchSize));
+            if (!ids.isEmpty()) {
+                int batchCleared = userRepo.clearExpiredResetTokens(ids, now);
+                resetTokensCleared.increment(batchCleared);
+                cleared += batchCleared;
+                afterId = ids.get(ids.size() - 1);
+                pause(ids.size());
+            }
+        } while (ids.size() == batchSize);
+        return cleared;
+    }
+
+    // Returns the number of outbox mails deleted
+    public int purgeFinishedOutboxMail() {
+        Date before = new Date(System.currentTimeMillis() - outboxRetention.toMillis());
+        int deleted = 0;
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = outboxMailRepo.findIdsCreatedBefore(FINISHED, before, afterId, Limit.of(batchSize));
+            if (!ids.isEmpty()) {
+                int batchDeleted = outboxMailRepo.deleteByIds(ids);
+                outboxMailDeleted.increment(batchDeleted);
+                deleted += batchDeleted;
+                afterId = ids.get(ids.size() - 1);
+                pause(ids.size());
+            }
+        } while (ids.size() == batchSize);
+        return deleted;
+    }
+
+    // Give other writers a turn between full batches
+    private void pause(int batchRows) {
+        if (batchRows < batchSize || batchPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
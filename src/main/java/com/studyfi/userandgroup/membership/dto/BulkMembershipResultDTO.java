@@ -0,0 +1,59 @@
+package com.studyfi.userandgroup.membership.dto;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BulkMembershipResultDTO {
+    private Integer groupId;
+    private MembershipAction action;
+    private Map<MembershipStatus, Integer> counts = new EnumMap<>(MembershipStatus.class);
+    private List<MembershipResultDTO> results = new ArrayList<>();  // One entry per submitted id, in request order
+
+    public BulkMembershipResultDTO() {
+    }
+
+    public BulkMembershipResultDTO(Integer groupId, MembershipAction action) {
+        this.groupId = groupId;
+        this.action = action;
+    }
+
+    public void addResult(Integer userId, MembershipStatus status) {
+        results.add(new MembershipResultDTO(userId, status));
+        counts.merge(status, 1, Integer::sum);
+    }
+
+    // Getter and Setter methods
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Integer groupId) {
+        this.groupId = groupId;
+    }
+
+    public MembershipAction getAction() {
+        return action;
+    }
+
+    public void setAction(MembershipAction action) {
+        this.action = action;
+    }
+
+    public Map<MembershipStatus, Integer> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<MembershipStatus, Integer> counts) {
+        this.counts = counts;
+    }
+
+    public List<MembershipResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<MembershipResultDTO> results) {
+        this.results = results;
+    }
+}
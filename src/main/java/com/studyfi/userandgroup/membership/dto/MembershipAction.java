@@ -0,0 +1,6 @@
+package com.studyfi.userandgroup.membership.dto;
+
+public enum MembershipAction {
+    ADD,
+    REMOVE
+}
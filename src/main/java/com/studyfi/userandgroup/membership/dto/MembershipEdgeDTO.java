@@ -0,0 +1,24 @@
+package com.studyfi.userandgroup.membership.dto;
+
+// One user_group row
+public class MembershipEdgeDTO {
+    private Integer userId;
+    private Integer groupId;
+
+    // Getter and Setter methods
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Integer groupId) {
+        this.groupId = groupId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.studyfi.userandgroup.membership.dto;
+
+public class MembershipResultDTO {
+    private Integer userId;
+    private MembershipStatus status;
+
+    public MembershipResultDTO() {
+    }
+
+    public MembershipResultDTO(Integer userId, MembershipStatus status) {
+        this.userId = userId;
+        this.status = status;
+    }
+
+    // Getter and Setter methods
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public MembershipStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MembershipStatus status) {
+        this.status = status;
+    }
+}
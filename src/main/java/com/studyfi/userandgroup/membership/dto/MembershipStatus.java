@@ -0,0 +1,11 @@
+package com.studyfi.userandgroup.membership.dto;
+
+// Outcome of a bulk membership change for one user id
+public enum MembershipStatus {
+    ADDED,
+    ALREADY_MEMBER,
+    REMOVED,
+    NOT_MEMBER,
+    USER_NOT_FOUND,
+    INVALID_ID  // The input held no usable user id, e.g. a malformed NDJSON line
+}
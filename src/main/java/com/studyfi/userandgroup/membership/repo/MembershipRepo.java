@@ -0,0 +1,81 @@
+package com.studyfi.userandgroup.membership.repo;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+// Direct reads and writes on the user_group join table, without loading either side's collection
+@Repository
+public class MembershipRepo {
+
+    private static final String INSERT = "INSERT INTO user_group (user_id, group_id) VALUES (?, ?)";
+    private static final String DELETE = "DELETE FROM user_group WHERE user_id = ? AND group_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.stream.fetch-size:500}")
+    private int fetchSize;
+
+    public MembershipRepo(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // Returns false when the membership already existed
+    public boolean insert(Integer userId, Integer groupId) {
+        try {
+            jdbcTemplate.update(INSERT, userId, groupId);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;  // The unique key on (user_id, group_id) makes concurrent adds safe
+        }
+    }
+
+    // Returns false when there was no such membership
+    public boolean delete(Integer userId, Integer groupId) {
+        return jdbcTemplate.update(DELETE, userId, groupId) > 0;
+    }
+
+    // Which of the given users are already members of the group
+    public List<Integer> findMemberIds(Integer groupId, Collection<Integer> userIds) {
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT user_id FROM user_group WHERE group_id = :groupId AND user_id IN (:userIds)",
+                new MapSqlParameterSource("groupId", groupId).addValue("userIds", userIds),
+                Integer.class);
+    }
+
+    // Hand every (userId, groupId) pair to the consumer straight off a forward-only result set
+    public void forEachMembership(BiConsumer<Integer, Integer> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT user_id, group_id FROM user_group", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getInt(1), resultSet.getInt(2)));
+    }
+
+    public void batchInsert(Integer groupId, List<Integer> userIds) {
+        jdbcTemplate.batchUpdate(INSERT, userIds, userIds.size(), (statement, userId) -> {
+            statement.setInt(1, userId);
+            statement.setInt(2, groupId);
+        });
+    }
+
+    public void batchDelete(Integer groupId, List<Integer> userIds) {
+        jdbcTemplate.batchUpdate(DELETE, userIds, userIds.size(), (statement, userId) -> {
+            statement.setInt(1, userId);
+            statement.setInt(2, groupId);
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.studyfi.userandgroup.membership.service;
+
+import com.studyfi.userandgroup.membership.repo.MembershipRepo;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory copy of user_group as compressed bitmaps: the groups of each user and the members of each group.
+// Bitmaps are changed in place under the write lock, so a change costs the same however large the group is;
+// readers share the read lock and return copies.
+// Only membership writes made through this instance are applied; MembershipService is the single writer.
+@Component
+public class MembershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MembershipIndex.class);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final MembershipRepo membershipRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, RoaringBitmap> groupsByUser = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> membersByGroup = new HashMap<>();
+
+    public MembershipIndex(MembershipRepo membershipRepo) {
+        this.membershipRepo = membershipRepo;
+    }
+
+    // Load every membership row; runs before the web server starts taking requests
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Integer, RoaringBitmap> groups = new HashMap<>();
+        Map<Integer, RoaringBitmap> members = new HashMap<>();
+        long[] rows = {0};
+        membershipRepo.forEachMembership((userId, groupId) -> {
+            groups.computeIfAbsent(userId, id -> new RoaringBitmap()).add(groupId);
+            members.computeIfAbsent(groupId, id -> new RoaringBitmap()).add(userId);
+            rows[0]++;
+        });
+        groups.values().forEach(RoaringBitmap::runOptimize);
+        members.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            groupsByUser.clear();
+            groupsByUser.putAll(groups);
+            membersByGroup.clear();
+            membersByGroup.putAll(members);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built membership index from {} rows in {} ms", rows[0], System.currentTimeMillis() - start);
+    }
+
+    public void add(Integer groupId, Collection<Integer> userIds) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap members = membersByGroup.computeIfAbsent(groupId, id -> new RoaringBitmap());
+            for (Integer userId : userIds) {
+                members.add(userId);
+                groupsByUser.computeIfAbsent(userId, id -> new RoaringBitmap()).add(groupId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer groupId, Collection<Integer> userIds) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap members = membersByGroup.get(groupId);
+            for (Integer userId : userIds) {
+                if (members != null) {
+                    members.remove(userId);
+                }
+                RoaringBitmap groups = groupsByUser.get(userId);
+                if (groups != null) {
+                    groups.remove(groupId);
+                    if (groups.isEmpty()) {
+                        groupsByUser.remove(userId);
+                    }
+                }
+            }
+            if (members != null && members.isEmpty()) {
+                membersByGroup.remove(groupId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int[] groupsOf(Integer userId) {
+        lock.readLock().lock();
+        try {
+            return groupsByUser.getOrDefault(userId, EMPTY).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] membersOf(Integer groupId) {
+        lock.readLock().lock();
+        try {
+            return membersByGroup.getOrDefault(groupId, EMPTY).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int memberCount(Integer groupId) {
+        lock.readLock().lock();
+        try {
+            return membersByGroup.getOrDefault(groupId, EMPTY).getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Groups both users belong to
+    public int[] sharedGroups(Integer userId, Integer otherUserId) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.and(groupsByUser.getOrDefault(userId, EMPTY), groupsByUser.getOrDefault(otherUserId, EMPTY)).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.studyfi.userandgroup.membership.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyfi.userandgroup.config.CacheConfig;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.membership.dto.BulkMembershipResultDTO;
+import com.studyfi.userandgroup.membership.dto.MembershipAction;
+import com.studyfi.userandgroup.membership.dto.MembershipStatus;
+import com.studyfi.userandgroup.membership.repo.MembershipRepo;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// All writes to group membership go through here
+@Service
+public class MembershipService {
+
+    // Held from a group's database write until the index has applied it, so the index sees changes in commit order
+    private static final int GROUP_LOCK_STRIPES = 64;
+
+    private final MembershipRepo membershipRepo;
+    private final UserRepo userRepo;
+    private final UserJdbcRepo userJdbcRepo;
+    private final GroupRepo groupRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MembershipIndex membershipIndex;
+    private final Cache userCache;
+    private final Cache groupCache;
+    private final Lock[] groupLocks = new Lock[GROUP_LOCK_STRIPES];
+
+    @Value("${app.membership.bulk-chunk-size:1000}")
+    private int bulkChunkSize;
+
+    public MembershipService(MembershipRepo membershipRepo, UserRepo userRepo, UserJdbcRepo userJdbcRepo,
+                             GroupRepo groupRepo, TransactionTemplate transactionTemplate, ObjectMapper objectMapper, CacheManager cacheManager,
+                             MembershipIndex membershipIndex) {
+        this.membershipRepo = membershipRepo;
+        this.userRepo = userRepo;
+        this.userJdbcRepo = userJdbcRepo;
+        this.groupRepo = groupRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.membershipIndex = membershipIndex;
+        this.userCache = cacheManager.getCache(CacheConfig.USERS);
+        this.groupCache = cacheManager.getCache(CacheConfig.GROUPS);
+        for (int i = 0; i < groupLocks.length; i++) {
+            groupLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // Add a user to a group; adding an existing member is a no-op
+    public boolean addMember(Integer userId, Integer groupId) {
+        checkExists(userId, groupId);
+        Lock groupLock = lockFor(groupId);
+        groupLock.lock();
+        try {
+            boolean added = membershipRepo.insert(userId, groupId);
+            if (added) {
+                membershipIndex.add(groupId, List.of(userId));
+                evict(groupId, List.of(userId));
+            }
+            return added;
+        } finally {
+            groupLock.unlock();
+        }
+    }
+
+    // Remove a user from a group; removing a non-member is a no-op
+    public boolean removeMember(Integer userId, Integer groupId) {
+        Lock groupLock = lockFor(groupId);
+        groupLock.lock();
+        try {
+            boolean removed = membershipRepo.delete(userId, groupId);
+            if (removed) {
+                membershipIndex.remove(groupId, List.of(userId));
+                evict(groupId, List.of(userId));
+            }
+            return removed;
+        } finally {
+            groupLock.unlock();
+        }
+    }
+
+    // Ids of the groups a user belongs to, answered from the in-memory index
+    public int[] getGroupIdsOfUser(Integer userId) {
+        return membershipIndex.groupsOf(userId);
+    }
+
+    // Ids of the members of a group, answered from the in-memory index
+    public int[] getMemberIdsOfGroup(Integer groupId) {
+        return membershipIndex.membersOf(groupId);
+    }
+
+    // Id, name and email of each member of a group, in id order; a roster without loading full profiles
+    public List<UserSummaryDTO> getMemberSummaries(Integer groupId) {
+        int[] memberIds = membershipIndex.membersOf(groupId);
+        List<UserSummaryDTO> members = new ArrayList<>(memberIds.length);
+        for (int from = 0; from < memberIds.length; from += bulkChunkSize) {
+            List<Integer> chunk = Arrays.stream(memberIds, from, Math.min(from + bulkChunkSize, memberIds.length)).boxed().toList();
+            members.addAll(userJdbcRepo.findSummariesByIds(chunk));
+        }
+        return members;
+    }
+
+    // Ids of the groups two users have in common
+    public int[] getSharedGroupIds(Integer userId, Integer otherUserId) {
+        return membershipIndex.sharedGroups(userId, otherUserId);
+    }
+
+    // Add or remove many users at once, one short transaction per chunk of ids; a null id is reported as INVALID_ID
+    public BulkMembershipResultDTO applyBulk(Integer groupId, MembershipAction action, Iterator<Integer> userIds) {
+        if (!groupRepo.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+
+        BulkMembershipResultDTO result = new BulkMembershipResultDTO(groupId, action);
+        List<Integer> chunk = new ArrayList<>(bulkChunkSize);
+        while (userIds.hasNext()) {
+            chunk.add(userIds.next());
+            if (chunk.size() == bulkChunkSize) {
+                applyChunk(groupId, action, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(groupId, action, chunk, result);
+        }
+        return result;
+    }
+
+    // Same as applyBulk, reading the ids from an NDJSON stream: one id or {"userId": id} per line.
+    // A line without a valid id is reported as INVALID_ID in its place, and the rest of the stream is still applied.
+    public BulkMembershipResultDTO applyBulk(Integer groupId, MembershipAction action, InputStream ndjson) throws IOException {
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            Iterator<Integer> userIds = lines.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::parseUserId)
+                    .iterator();
+            return applyBulk(groupId, action, userIds);
+        }
+    }
+
+    // The user id on one NDJSON line, or null if the line does not hold one
+    private Integer parseUserId(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            JsonNode userId = node.isObject() ? node.get("userId") : node;
+            return userId != null && userId.isIntegralNumber() && userId.canConvertToInt() ? userId.intValue() : null;
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    private void applyChunk(Integer groupId, MembershipAction action, List<Integer> chunk, BulkMembershipResultDTO result) {
+        Set<Integer> distinctIds = new LinkedHashSet<>(chunk);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            chunk.forEach(userId -> result.addResult(null, MembershipStatus.INVALID_ID));
+            return;
+        }
+
+        Map<Integer, MembershipStatus> statuses;
+        Lock groupLock = lockFor(groupId);
+        groupLock.lock();
+        try {
+            statuses = action == MembershipAction.ADD
+                    ? addChunk(groupId, distinctIds)
+                    : removeChunk(groupId, distinctIds);
+
+            // The chunk has committed, so the index can follow and cached entries for the changed users can go
+            List<Integer> changed = new ArrayList<>();
+            statuses.forEach((userId, status) -> {
+                if (status == MembershipStatus.ADDED || status == MembershipStatus.REMOVED) {
+                    changed.add(userId);
+                }
+            });
+            if (!changed.isEmpty()) {
+                if (action == MembershipAction.ADD) {
+                    membershipIndex.add(groupId, changed);
+                } else {
+                    membershipIndex.remove(groupId, changed);
+                }
+                evict(groupId, changed);
+            }
+        } finally {
+            groupLock.unlock();
+        }
+
+        // Report in request order; a repeated id only takes effect the first time
+        MembershipStatus repeated = action == MembershipAction.ADD ? MembershipStatus.ALREADY_MEMBER : MembershipStatus.NOT_MEMBER;
+        Set<Integer> seen = new HashSet<>();
+        for (Integer userId : chunk) {
+            if (userId == null) {
+                result.addResult(null, MembershipStatus.INVALID_ID);
+                continue;
+            }
+            MembershipStatus status = statuses.get(userId);
+            boolean firstTime = seen.add(userId);
+            result.addResult(userId, firstTime || status == MembershipStatus.USER_NOT_FOUND ? status : repeated);
+        }
+    }
+
+    private Map<Integer, MembershipStatus> addChunk(Integer groupId, Set<Integer> userIds) {
+        try {
+            return transactionTemplate.execute(tx -> {
+                Set<Integer> existingUsers = new HashSet<>(userJdbcRepo.findExistingIds(userIds));
+                Set<Integer> members = new HashSet<>(membershipRepo.findMemberIds(groupId, userIds));
+
+                Map<Integer, MembershipStatus> statuses = new HashMap<>();
+                List<Integer> toInsert = new ArrayList<>();
+                for (Integer userId : userIds) {
+                    if (!existingUsers.contains(userId)) {
+                        statuses.put(userId, MembershipStatus.USER_NOT_FOUND);
+                    } else if (members.contains(userId)) {
+                        statuses.put(userId, MembershipStatus.ALREADY_MEMBER);
+                    } else {
+                        statuses.put(userId, MembershipStatus.ADDED);
+                        toInsert.add(userId);
+                    }
+                }
+                if (!toInsert.isEmpty()) {
+                    membershipRepo.batchInsert(groupId, toInsert);
+                }
+                return statuses;
+            });
+        } catch (DuplicateKeyException ex) {
+            // A concurrent add got in between the read and the batch; redo this chunk one row at a time
+            Set<Integer> existingUsers = new HashSet<>(userJdbcRepo.findExistingIds(userIds));
+            Map<Integer, MembershipStatus> statuses = new HashMap<>();
+            for (Integer userId : userIds) {
+                if (!existingUsers.contains(userId)) {
+                    statuses.put(userId, MembershipStatus.USER_NOT_FOUND);
+                } else {
+                    statuses.put(userId, membershipRepo.insert(userId, groupId) ? MembershipStatus.ADDED : MembershipStatus.ALREADY_MEMBER);
+                }
+            }
+            return statuses;
+        }
+    }
+
+    private Map<Integer, MembershipStatus> removeChunk(Integer groupId, Set<Integer> userIds) {
+        return transactionTemplate.execute(tx -> {
+            Set<Integer> existingUsers = new HashSet<>(userJdbcRepo.findExistingIds(userIds));
+            Set<Integer> members = new HashSet<>(membershipRepo.findMemberIds(groupId, userIds));
+
+            Map<Integer, MembershipStatus> statuses = new HashMap<>();
+            List<Integer> toDelete = new ArrayList<>();
+            for (Integer userId : userIds) {
+                if (!existingUsers.contains(userId)) {
+                    statuses.put(userId, MembershipStatus.USER_NOT_FOUND);
+                } else if (members.contains(userId)) {
+                    statuses.put(userId, MembershipStatus.REMOVED);
+                    toDelete.add(userId);
+                } else {
+                    statuses.put(userId, MembershipStatus.NOT_MEMBER);
+                }
+            }
+            if (!toDelete.isEmpty()) {
+                membershipRepo.batchDelete(groupId, toDelete);
+            }
+            return statuses;
+        });
+    }
+
+    private Lock lockFor(Integer groupId) {
+        return groupLocks[Math.floorMod(groupId, GROUP_LOCK_STRIPES)];
+    }
+
+    // Drop cached user and group entries touched by a membership change
+    private void evict(Integer groupId, Collection<Integer> userIds) {
+        groupCache.evict(groupId);
+        for (Integer userId : userIds) {
+            userCache.evict(userId);
+        }
+    }
+
+    private void checkExists(Integer userId, Integer groupId) {
+        if (!userRepo.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        if (!groupRepo.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+    }
+}
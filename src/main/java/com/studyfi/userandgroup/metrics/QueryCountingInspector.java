@@ -0,0 +1,31 @@
+package com.studyfi.userandgroup.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+// Hibernate instantiates this class itself (hibernate.session_factory.statement_inspector), so the state is static.
+public class QueryCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    // Start counting on this thread
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // Stop counting on this thread and return the number of statements seen since start()
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
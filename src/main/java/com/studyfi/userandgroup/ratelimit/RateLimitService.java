@@ -0,0 +1,74 @@
+package com.studyfi.userandgroup.ratelimit;
+
+import com.studyfi.userandgroup.user.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Per-email and per-client-IP throttling for the endpoints that do mail or password-hashing work.
+// Checked in the controller, before any database, BCrypt or SMTP work is done.
+@Service
+public class RateLimitService {
+
+    private final RateLimiter forgotPasswordByEmail;
+    private final RateLimiter forgotPasswordByIp;
+    private final RateLimiter registerByEmail;
+    private final RateLimiter registerByIp;
+    private final Counter forgotPasswordRejected;
+    private final Counter registerRejected;
+
+    public RateLimitService(MeterRegistry meterRegistry,
+                            @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${app.rate-limit.forgot-password.email-capacity:3}") int forgotPasswordEmailCapacity,
+                            @Value("${app.rate-limit.forgot-password.email-period:15m}") Duration forgotPasswordEmailPeriod,
+                            @Value("${app.rate-limit.forgot-password.ip-capacity:20}") int forgotPasswordIpCapacity,
+                            @Value("${app.rate-limit.forgot-password.ip-period:1m}") Duration forgotPasswordIpPeriod,
+                            @Value("${app.rate-limit.register.email-capacity:5}") int registerEmailCapacity,
+                            @Value("${app.rate-limit.register.email-period:1h}") Duration registerEmailPeriod,
+                            @Value("${app.rate-limit.register.ip-capacity:10}") int registerIpCapacity,
+                            @Value("${app.rate-limit.register.ip-period:1m}") Duration registerIpPeriod) {
+        this.forgotPasswordByEmail = new RateLimiter(forgotPasswordEmailCapacity, forgotPasswordEmailPeriod, maxKeys);
+        this.forgotPasswordByIp = new RateLimiter(forgotPasswordIpCapacity, forgotPasswordIpPeriod, maxKeys);
+        this.registerByEmail = new RateLimiter(registerEmailCapacity, registerEmailPeriod, maxKeys);
+        this.registerByIp = new RateLimiter(registerIpCapacity, registerIpPeriod, maxKeys);
+
+        this.forgotPasswordRejected = Counter.builder("rate.limit.rejected")
+                .description("Requests turned away with 429")
+                .tag("endpoint", "forgot-password")
+                .register(meterRegistry);
+        this.registerRejected = Counter.builder("rate.limit.rejected")
+                .description("Requests turned away with 429")
+                .tag("endpoint", "register")
+                .register(meterRegistry);
+    }
+
+    // Throws 429 if this email or client has asked for too many reset links
+    public void checkForgotPassword(String email, String clientIp) {
+        check(forgotPasswordByIp, forgotPasswordByEmail, email, clientIp, forgotPasswordRejected);
+    }
+
+    // Throws 429 if this email or client has attempted too many registrations
+    public void checkRegister(String email, String clientIp) {
+        check(registerByIp, registerByEmail, email, clientIp, registerRejected);
+    }
+
+    // The IP bucket is checked first so a flood from one client does not use up the victim's email bucket
+    private void check(RateLimiter byIp, RateLimiter byEmail, String email, String clientIp, Counter rejected) {
+        long waitNanos = byIp.tryAcquire(clientIp);
+        if (waitNanos == 0 && email != null) {
+            waitNanos = byEmail.tryAcquire(UserService.normalizeEmail(email));
+        }
+        if (waitNanos > 0) {
+            rejected.increment();
+            long waitSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many requests, try again in " + waitSeconds + " seconds");
+        }
+    }
+}
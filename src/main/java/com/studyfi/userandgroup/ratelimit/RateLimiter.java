@@ -0,0 +1,85 @@
+package com.studyfi.userandgroup.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// One token bucket per key (an email, a client IP). Each bucket is a single AtomicLong holding the time at which it
+// would be empty again (the GCRA form of a token bucket), so taking a token is one CAS and never locks.
+// At most about maxKeys buckets are kept. Only buckets that have refilled completely are ever dropped, so dropping
+// one never hands a client more tokens than it would have had anyway. When every tracked key is still active, new keys
+// are refused until one goes idle: a flood of distinct keys can hold up new clients but cannot reset anyone's limit.
+public class RateLimiter {
+
+    private static final long SWEEP_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);  // Least time between two full-table sweeps
+
+    private final long intervalNanos;  // Time to earn back one token
+    private final long burstNanos;     // Time to earn back a full bucket
+    private final long maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong nextSweepAt;
+
+    // Allow up to capacity calls per key in any refillPeriod, tracking at most maxKeys keys
+    public RateLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, Duration refillPeriod, long maxKeys, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Rate limit capacity must be at least 1");
+        }
+        this.intervalNanos = refillPeriod.toNanos() / capacity;
+        this.burstNanos = intervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.nextSweepAt = new AtomicLong(clock.getAsLong());
+    }
+
+    // Take a token for the key; returns 0 if one was available, otherwise the nanoseconds until the next one is
+    public long tryAcquire(String key) {
+        while (true) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys && !dropIdleBuckets()) {
+                    return intervalNanos;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(clock.getAsLong()));
+            }
+            long waitNanos = take(bucket);
+            // A sweep may have dropped the bucket as we used it; charge the one now in the map instead
+            if (buckets.get(key) == bucket) {
+                return waitNanos;
+            }
+        }
+    }
+
+    private long take(AtomicLong bucket) {
+        while (true) {
+            long now = clock.getAsLong();
+            long emptyAt = bucket.get();
+            // Compare differences rather than values: nanoTime may be negative and wrap
+            long newEmptyAt = (emptyAt - now > 0 ? emptyAt : now) + intervalNanos;
+            long debt = newEmptyAt - now;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (bucket.compareAndSet(emptyAt, newEmptyAt)) {
+                return 0;
+            }
+        }
+    }
+
+    // Drop the buckets that have refilled completely, at most once per SWEEP_GAP_NANOS; returns whether there is room
+    private boolean dropIdleBuckets() {
+        long now = clock.getAsLong();
+        long sweepAt = nextSweepAt.get();
+        if (now - sweepAt >= 0 && nextSweepAt.compareAndSet(sweepAt, now + SWEEP_GAP_NANOS)) {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        }
+        return buckets.size() < maxKeys;
+    }
+}
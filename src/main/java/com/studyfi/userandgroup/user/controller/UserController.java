@@ -1,12 +1,28 @@
 package com.studyfi.userandgroup.user.controller;
 
+import com.studyfi.userandgroup.batch.BatchEntryDTO;
+import com.studyfi.userandgroup.membership.service.MembershipService;
+import com.studyfi.userandgroup.ratelimit.RateLimitService;
 import com.studyfi.userandgroup.user.dto.EmailRequestDTO;
 import com.studyfi.userandgroup.user.dto.PasswordResetDTO;
 import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.dto.UserPageDTO;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.repo.UserField;
+import com.studyfi.userandgroup.user.service.UserImportService;
 import com.studyfi.userandgroup.user.service.UserService;
+import com.studyfi.userandgroup.web.ETags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,27 +33,97 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private UserImportService userImportService;
+
     // Register a new user
     @PostMapping("/register")
-    public UserDTO register(@RequestBody UserDTO userDTO) {
+    public UserDTO register(@RequestBody UserDTO userDTO, HttpServletRequest request) {
+        rateLimitService.checkRegister(userDTO.getEmail(), request.getRemoteAddr());
         return userService.registerUser(userDTO);
     }
 
-    // Get all users
+    // Bulk import users from CSV with a header row (name,email,password,phoneContact,birthDate,country,aboutMe,currentAddress);
+    // the password column may be empty. The response is NDJSON: an error line per rejected row and a progress line per batch.
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public void importUsersCsv(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userImportService.importUsers(body, UserImportService.Format.CSV, response.getOutputStream());
+    }
+
+    // Same as above, with one user JSON object per line
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsersNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userImportService.importUsers(body, UserImportService.Format.NDJSON, response.getOutputStream());
+    }
+
+    // Get all users; fields=id,name (any UserDTO properties) returns only those, read from just those columns
     @GetMapping("/getusers")
-    public List<UserDTO> getAllUsers() {
+    public List<?> getAllUsers(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return userService.getAllUsers(UserField.parse(fields));
+        }
         return userService.getAllUsers();
     }
 
-    // Get User by ID
+    // Get users one page at a time; pass the returned nextCursor as afterId to get the next page. Takes fields= as above.
+    @GetMapping("/page")
+    public UserPageDTO<?> getUsersPage(@RequestParam(required = false) Integer afterId,
+                                       @RequestParam(defaultValue = "50") int size,
+                                       @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return userService.getUsersPage(afterId, size, UserField.parse(fields));
+        }
+        return userService.getUsersPage(afterId, size);
+    }
+
+    // Stream all users as a JSON array without loading them into memory. Written synchronously rather than as a
+    // StreamingResponseBody so a large user table is not cut off by the async request timeout.
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userService.streamUsers(response.getOutputStream());
+    }
+
+    // Typeahead search over user names and emails; returns id, name and email only
+    @GetMapping("/search")
+    public List<UserSummaryDTO> searchUsers(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return userService.searchUsers(q, limit);
+    }
+
+    // Get User by ID; answers 304 with no body when If-None-Match still names the current version.
+    // With fields= only those properties are returned, without an ETag.
     @GetMapping("/{userId}")
-    public UserDTO getUserById(@PathVariable Integer userId) {
-        return userService.getUserById(userId);
+    public Object getUserById(@PathVariable Integer userId, @RequestParam(required = false) String fields,
+                              WebRequest request) {
+        if (fields != null) {
+            return userService.getUserById(userId, UserField.parse(fields));
+        }
+        UserDTO user = userService.getUserById(userId);
+        if (request.checkNotModified(ETags.of(user.getVersion()))) {
+            return null;
+        }
+        return user;
+    }
+
+    // Get many users in one call, e.g. all members of a group; the body is a JSON array of ids (see app.batch.max-ids).
+    // The answer has one entry per id in the same order, with found=false for ids that match no user.
+    @PostMapping("/batch")
+    public List<BatchEntryDTO<UserDTO>> getUsersByIds(@RequestBody List<Integer> userIds) {
+        return userService.getUsersByIds(userIds);
     }
 
     // Endpoint to trigger sending the password reset link
     @PostMapping("/forgot-password")
-    public String sendPasswordResetEmail(@RequestBody EmailRequestDTO emailRequestDTO) {
+    public String sendPasswordResetEmail(@RequestBody EmailRequestDTO emailRequestDTO, HttpServletRequest request) {
+        rateLimitService.checkForgotPassword(emailRequestDTO.getEmail(), request.getRemoteAddr());
         userService.sendPasswordResetLink(emailRequestDTO.getEmail()); // Calls the service method
         return "Password reset link sent to " + emailRequestDTO.getEmail();
     }
@@ -49,10 +135,20 @@ public class UserController {
         return "Password has been successfully reset.";
     }
 
-    // Update user profile
+    // Update user profile; with If-Match the update is refused (412) if the user changed in the meantime
     @PutMapping("/profile/{userId}")
-    public UserDTO updateProfile(@PathVariable Integer userId, @RequestBody UserDTO userDTO) {  // Changed Long to Integer
-        return userService.updateUserProfile(userId, userDTO);
+    public ResponseEntity<UserDTO> updateProfile(@PathVariable Integer userId, @RequestBody UserDTO userDTO,  // Changed Long to Integer
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDTO updated = userService.updateUserProfile(userId, userDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+    }
+
+    // Partially update user profile; only the fields present in the body are changed
+    @PatchMapping("/profile/{userId}")
+    public ResponseEntity<UserDTO> patchProfile(@PathVariable Integer userId, @RequestBody UserDTO userDTO,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDTO patched = userService.patchUserProfile(userId, userDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patched.getVersion())).body(patched);
     }
 
     // Add user to group
@@ -60,4 +156,22 @@ public class UserController {
     public void addUserToGroup(@RequestParam Integer userId, @RequestParam Integer groupId) {  // Changed Long to Integer
         userService.addUserToGroup(userId, groupId);
     }
+
+    // Remove user from group
+    @PostMapping("/removeFromGroup")
+    public void removeUserFromGroup(@RequestParam Integer userId, @RequestParam Integer groupId) {
+        userService.removeUserFromGroup(userId, groupId);
+    }
+
+    // Ids of the groups a user is in
+    @GetMapping("/{userId}/groups")
+    public int[] getGroupsOfUser(@PathVariable Integer userId) {
+        return membershipService.getGroupIdsOfUser(userId);
+    }
+
+    // Ids of the groups two users share
+    @GetMapping("/{userId}/shared-groups/{otherUserId}")
+    public int[] getSharedGroups(@PathVariable Integer userId, @PathVariable Integer otherUserId) {
+        return membershipService.getSharedGroupIds(userId, otherUserId);
+    }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ public class UserDTO {
     private String country;
     private String aboutMe;
     private String currentAddress;
+    private Long version;
 
     // Getter and Setter methods
     public Integer getId() {
@@ -83,4 +84,12 @@ public class UserDTO {
     public void setCurrentAddress(String currentAddress) {
         this.currentAddress = currentAddress;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
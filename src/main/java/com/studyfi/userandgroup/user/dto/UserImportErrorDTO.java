@@ -0,0 +1,47 @@
+package com.studyfi.userandgroup.user.dto;
+
+// A row of a bulk import that was not imported; row numbers start at 1 and do not count a CSV header
+public class UserImportErrorDTO {
+    private final String type = "error";
+    private long row;
+    private String email;
+    private String message;
+
+    public UserImportErrorDTO() {
+    }
+
+    public UserImportErrorDTO(long row, String email, String message) {
+        this.row = row;
+        this.email = email;
+        this.message = message;
+    }
+
+    // Getter and Setter methods
+    public String getType() {
+        return type;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
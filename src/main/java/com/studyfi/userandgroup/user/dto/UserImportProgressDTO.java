@@ -0,0 +1,57 @@
+package com.studyfi.userandgroup.user.dto;
+
+// Running totals of a bulk import, reported after every batch and once more (done=true) at the end
+public class UserImportProgressDTO {
+    private final String type = "progress";
+    private long processed;
+    private long imported;
+    private long failed;
+    private boolean done;
+
+    public UserImportProgressDTO() {
+    }
+
+    public UserImportProgressDTO(long processed, long imported, long failed, boolean done) {
+        this.processed = processed;
+        this.imported = imported;
+        this.failed = failed;
+        this.done = done;
+    }
+
+    // Getter and Setter methods
+    public String getType() {
+        return type;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+}
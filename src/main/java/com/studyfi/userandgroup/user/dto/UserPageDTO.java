@@ -0,0 +1,34 @@
+package com.studyfi.userandgroup.user.dto;
+
+import java.util.List;
+
+// A page of users: full UserDTOs, or property maps when the client asked for a subset of fields
+public class UserPageDTO<T> {
+    private List<T> users;
+    private Integer nextCursor;  // Id to pass as afterId for the next page, null when there are no more users
+
+    public UserPageDTO() {
+    }
+
+    public UserPageDTO(List<T> users, Integer nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getter and Setter methods
+    public List<T> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<T> users) {
+        this.users = users;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.studyfi.userandgroup.user.dto;
+
+// Lightweight view of a user for lists and typeahead results
+public class UserSummaryDTO {
+    private Integer id;
+    private String name;
+    private String email;
+
+    public UserSummaryDTO() {
+    }
+
+    public UserSummaryDTO(Integer id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    // Getter and Setter methods
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,39 @@
+package com.studyfi.userandgroup.user.mapper;
+
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.model.User;
+import org.springframework.stereotype.Component;
+
+// Field-by-field mapping between User and UserDTO, replacing the reflective ModelMapper on hot paths
+@Component
+public class UserMapper {
+
+    // The password hash, reset token and groups are never copied into the DTO
+    public UserDTO toDTO(User user) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(user.getId());
+        userDTO.setName(user.getName());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setPhoneContact(user.getPhoneContact());
+        userDTO.setBirthDate(user.getBirthDate());
+        userDTO.setCountry(user.getCountry());
+        userDTO.setAboutMe(user.getAboutMe());
+        userDTO.setCurrentAddress(user.getCurrentAddress());
+        userDTO.setVersion(user.getVersion());
+        return userDTO;
+    }
+
+    // The password is left for the caller to set once it has been encoded; the version is never taken from a client
+    public User toEntity(UserDTO userDTO) {
+        User user = new User();
+        user.setId(userDTO.getId());
+        user.setName(userDTO.getName());
+        user.setEmail(userDTO.getEmail());
+        user.setPhoneContact(userDTO.getPhoneContact());
+        user.setBirthDate(userDTO.getBirthDate());
+        user.setCountry(userDTO.getCountry());
+        user.setAboutMe(userDTO.getAboutMe());
+        user.setCurrentAddress(userDTO.getCurrentAddress());
+        return user;
+    }
+}
@@ -3,12 +3,19 @@ package com.studyfi.userandgroup.user.model;
 import com.studyfi.userandgroup.group.model.Group;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Date;
 import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_user_email", columnList = "email", unique = true),
+        @Index(name = "uk_user_reset_token", columnList = "reset_token", unique = true),
+        @Index(name = "idx_user_reset_token_expiry", columnList = "reset_token_expiry")  // Lets the purge job find expired tokens
+})
+@DynamicUpdate  // UPDATE statements only cover the columns that actually changed
 public class User {
 
     @Id
@@ -17,7 +24,7 @@ public class User {
 
     private String name;
 
-    private String email;
+    private String email;  // Always stored lower-cased, see UserService.normalizeEmail
 
     private String password;
 
@@ -38,11 +45,15 @@ public class User {
     @Column(name = "reset_token_expiry")
     private Date resetTokenExpiry;  // The expiration time of the reset token
 
+    @Version
+    private long version;  // Bumped on every update; drives ETags and If-Match checks
+
     @ManyToMany
     @JoinTable(
             name = "user_group",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "group_id"))
+            inverseJoinColumns = @JoinColumn(name = "group_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_user_group", columnNames = {"user_id", "group_id"}))
     private List<Group> groups;  // Many-to-many relationship with Group
 
     // Getter and Setter methods (if Lombok is not working)
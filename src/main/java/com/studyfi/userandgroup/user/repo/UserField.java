@@ -0,0 +1,58 @@
+package com.studyfi.userandgroup.user.repo;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// The UserDTO properties a client can ask for with fields=, and the user column each one is read from
+public enum UserField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    EMAIL("email", "email"),
+    PHONE_CONTACT("phoneContact", "phone_contact"),
+    BIRTH_DATE("birthDate", "birth_date"),
+    COUNTRY("country", "country"),
+    ABOUT_ME("aboutMe", "about_me"),
+    CURRENT_ADDRESS("currentAddress", "current_address"),
+    VERSION("version", "version");
+
+    private final String property;
+    private final String column;
+
+    UserField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    // Parse a comma-separated list of property names; the id is always included so rows stay identifiable
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromProperty(property));
+        }
+        return parsed;
+    }
+
+    private static UserField fromProperty(String property) {
+        for (UserField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + property);
+    }
+}
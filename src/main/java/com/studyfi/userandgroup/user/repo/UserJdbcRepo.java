@@ -0,0 +1,151 @@
+package com.studyfi.userandgroup.user.repo;
+
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Plain JDBC access for bulk reads and writes that must not go through the persistence context
+@Repository
+public class UserJdbcRepo {
+
+    private static final String USER_COLUMNS =
+            "id, name, email, phone_contact, birth_date, country, about_me, current_address, version";
+
+    private static final String SELECT_USERS = "SELECT " + USER_COLUMNS + " FROM user ORDER BY id";
+
+    private static final String INSERT_USER =
+            "INSERT INTO user (name, email, password, phone_contact, birth_date, country, about_me, current_address, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.stream.fetch-size:500}")
+    private int fetchSize;
+
+    public UserJdbcRepo(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // Hand every user to the consumer as it comes off a forward-only, read-only result set
+    public void forEachUser(Consumer<UserDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SELECT_USERS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapUser(resultSet)));
+    }
+
+    // Same as forEachUser, reading only the id, name and email columns
+    public void forEachUserSummary(Consumer<UserSummaryDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, name, email FROM user ORDER BY id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(
+                new UserSummaryDTO(resultSet.getInt("id"), resultSet.getString("name"), resultSet.getString("email"))));
+    }
+
+    // Id, name and email of the users with the given ids, in id order
+    public List<UserSummaryDTO> findSummariesByIds(Collection<Integer> ids) {
+        return namedParameterJdbcTemplate.query("SELECT id, name, email FROM user WHERE id IN (:ids) ORDER BY id",
+                Map.of("ids", ids), (resultSet, rowNum) ->
+                        new UserSummaryDTO(resultSet.getInt("id"), resultSet.getString("name"), resultSet.getString("email")));
+    }
+
+    // Only the requested columns of every user, in id order, keyed by UserDTO property name
+    public List<Map<String, Object>> findAllFields(Set<UserField> fields) {
+        return queryFields(fields, "", Map.of());
+    }
+
+    // Only the requested columns of the next users after the given id (keyset pagination on id)
+    public List<Map<String, Object>> findFieldsPage(Set<UserField> fields, int afterId, int limit) {
+        return queryFields(fields, "WHERE id > :afterId ORDER BY id LIMIT :limit", Map.of("afterId", afterId, "limit", limit));
+    }
+
+    // Only the requested columns of one user, or null if there is no such user
+    public Map<String, Object> findFieldsById(Integer id, Set<UserField> fields) {
+        List<Map<String, Object>> rows = queryFields(fields, "WHERE id = :id", Map.of("id", id));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Column names come from the UserField enum, never from the client, so building the select list is safe
+    private List<Map<String, Object>> queryFields(Set<UserField> fields, String condition, Map<String, ?> params) {
+        String columns = fields.stream().map(UserField::getColumn).collect(Collectors.joining(", "));
+        String sql = "SELECT " + columns + " FROM user " + (condition.isEmpty() ? "ORDER BY id" : condition);
+        return namedParameterJdbcTemplate.query(sql, params, (resultSet, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (UserField field : fields) {
+                row.put(field.getProperty(), resultSet.getObject(field.getColumn()));
+            }
+            return row;
+        });
+    }
+
+    // Which of the given ids belong to existing users
+    public List<Integer> findExistingIds(Collection<Integer> ids) {
+        return namedParameterJdbcTemplate.queryForList("SELECT id FROM user WHERE id IN (:ids)", Map.of("ids", ids), Integer.class);
+    }
+
+    // The users with the given ids, in no particular order; ids with no user are skipped
+    public List<UserDTO> findByIds(Collection<Integer> ids) {
+        return namedParameterJdbcTemplate.query("SELECT " + USER_COLUMNS + " FROM user WHERE id IN (:ids)", Map.of("ids", ids),
+                (resultSet, rowNum) -> mapUser(resultSet));
+    }
+
+    // Insert many users in one JDBC batch; MySQL sends it as multi-row INSERTs (rewriteBatchedStatements=true)
+    public void batchInsert(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setString(1, user.getName());
+            statement.setString(2, user.getEmail());
+            statement.setString(3, user.getPassword());
+            statement.setString(4, user.getPhoneContact());
+            statement.setString(5, user.getBirthDate());
+            statement.setString(6, user.getCountry());
+            statement.setString(7, user.getAboutMe());
+            statement.setString(8, user.getCurrentAddress());
+        });
+    }
+
+    // Ids of the users registered under the given (normalized) emails, keyed by email
+    public Map<String, Integer> findIdsByEmail(Collection<String> emails) {
+        Map<String, Integer> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, email FROM user WHERE email IN (:emails)", Map.of("emails", emails),
+                (RowCallbackHandler) resultSet -> ids.put(resultSet.getString("email"), resultSet.getInt("id")));
+        return ids;
+    }
+
+    private UserDTO mapUser(ResultSet resultSet) throws SQLException {
+        UserDTO user = new UserDTO();
+        user.setId(resultSet.getInt("id"));
+        user.setName(resultSet.getString("name"));
+        user.setEmail(resultSet.getString("email"));
+        user.setPhoneContact(resultSet.getString("phone_contact"));
+        user.setBirthDate(resultSet.getString("birth_date"));
+        user.setCountry(resultSet.getString("country"));
+        user.setAboutMe(resultSet.getString("about_me"));
+        user.setCurrentAddress(resultSet.getString("current_address"));
+        user.setVersion(resultSet.getLong("version"));
+        return user;
+    }
+}
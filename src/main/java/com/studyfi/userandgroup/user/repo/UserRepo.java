@@ -1,11 +1,55 @@
 package com.studyfi.userandgroup.user.repo;
 
 import com.studyfi.userandgroup.user.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 public interface UserRepo extends JpaRepository<User, Integer> {  // Changed Long to Integer
     User findByEmail(String email);
 
     // Custom query method to find User by reset token
     User findByResetToken(String resetToken);
+
+    // Keyset pagination: the next users after the given id, in id order
+    List<User> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    // Store a reset token; a bulk update, so the version (and with it the cached profile and its ETag) is left alone
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.resetToken = :token, u.resetTokenExpiry = :expiry WHERE u.id = :id")
+    int updateResetToken(@Param("id") Integer id, @Param("token") String token, @Param("expiry") Date expiry);
+
+    // Spend a reset token: only succeeds while the token is still on the row, and bumps the version like any profile change
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword, u.resetToken = NULL, u.resetTokenExpiry = NULL, "
+            + "u.version = u.version + 1 WHERE u.id = :id AND u.resetToken = :token")
+    int resetPasswordWithToken(@Param("id") Integer id, @Param("token") String token,
+                               @Param("newPassword") String newPassword);
+
+    // Compare-and-set on the password hash: only succeeds if the password is still the one that was read.
+    // Bumps the version, so a profile update still holding the old one fails with 412 instead of writing the old hash back.
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword, u.version = u.version + 1 WHERE u.id = :id "
+            + "AND (u.password = :oldPassword OR (u.password IS NULL AND :oldPassword IS NULL))")
+    int updatePasswordIfUnchanged(@Param("id") Integer id, @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
+    // Keyset batch of users whose reset token expired before the given time
+    @Query("SELECT u.id FROM User u WHERE u.resetTokenExpiry < :now AND u.id > :afterId ORDER BY u.id")
+    List<Integer> findExpiredResetTokenIds(@Param("now") Date now, @Param("afterId") Integer afterId, Limit limit);
+
+    // Clear the tokens, skipping any user who was issued a fresh token since the batch was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.resetToken = NULL, u.resetTokenExpiry = NULL WHERE u.id IN :ids AND u.resetTokenExpiry < :now")
+    int clearExpiredResetTokens(@Param("ids") List<Integer> ids, @Param("now") Date now);
 }
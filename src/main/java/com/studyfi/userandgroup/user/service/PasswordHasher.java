@@ -0,0 +1,127 @@
+package com.studyfi.userandgroup.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt on a small bounded pool so that a burst of sign-ups cannot starve the request threads.
+// Bulk imports hash on a second, smaller pool of their own, so they neither fill the interactive queue nor take every core.
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor importExecutor;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${app.hashing.threads:0}") int threads,
+                          @Value("${app.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.import.hash-threads:0}") int importThreads) {
+        this.passwordEncoder = passwordEncoder;
+
+        // Default to one thread per core: hashing is pure CPU work
+        int cores = Runtime.getRuntime().availableProcessors();
+        int poolSize = threads > 0 ? threads : cores;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("password-hasher-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Imports default to a quarter of the cores; a batch waits in the unbounded queue, since the caller is the import itself
+        int importPoolSize = importThreads > 0 ? importThreads : Math.max(1, cores / 4);
+        this.importExecutor = new ThreadPoolExecutor(importPoolSize, importPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("password-import-hasher-"));
+
+        this.hashTimer = Timer.builder("password.hash")
+                .description("Time spent computing a password hash")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Hash requests turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Hash requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently hashing")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.import.active", importExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Import workers currently hashing")
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Hash on the worker pool; answers 503 straight away when the queue is full
+    public String encode(String rawPassword) {
+        Future<String> hash;
+        try {
+            hash = executor.submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many password requests, try again shortly");
+        }
+
+        return await(hash);
+    }
+
+    // Hash a whole batch for bulk imports on the import pool, in the order given. Null entries stay null.
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            hashes.add(rawPassword == null ? CompletableFuture.completedFuture(null)
+                    : importExecutor.submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword))));
+        }
+
+        List<String> encoded = new ArrayList<>(hashes.size());
+        try {
+            for (Future<String> hash : hashes) {
+                encoded.add(await(hash));
+            }
+        } finally {
+            hashes.forEach(hash -> hash.cancel(true));  // No-op for finished hashes; drops the rest if one failed
+        }
+        return encoded;
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException ex) {
+            hash.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        importExecutor.shutdown();
+    }
+}
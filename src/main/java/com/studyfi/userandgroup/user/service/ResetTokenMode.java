@@ -0,0 +1,7 @@
+package com.studyfi.userandgroup.user.service;
+
+// How password reset tokens are issued and checked (app.reset-token.mode)
+public enum ResetTokenMode {
+    DATABASE,  // Random token stored on the user row, looked up on reset
+    SIGNED     // Self-contained HMAC-signed token, nothing stored until the password changes
+}
@@ -0,0 +1,112 @@
+package com.studyfi.userandgroup.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Stateless password reset tokens: base64url(userId | expiresAt | fingerprint | HMAC-SHA256 of those).
+// The fingerprint is derived from the user's current password hash, so a token stops working as soon as the
+// password changes - which makes it single-use without storing anything.
+@Component
+public class SignedResetTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(SignedResetTokens.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int FINGERPRINT_LENGTH = 8;
+    private static final int PAYLOAD_LENGTH = Integer.BYTES + Long.BYTES + FINGERPRINT_LENGTH;
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private final SecretKeySpec key;
+
+    public SignedResetTokens(@Value("${app.reset-token.secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            // Fine for a single instance; tokens issued before a restart stop working
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("app.reset-token.secret is not set, signing reset tokens with a random per-process key");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    // The verified contents of a token
+    public record Claims(int userId, byte[] fingerprint) {
+
+        // True while the user's password is still the one the token was issued for
+        public boolean matches(String passwordHash) {
+            return MessageDigest.isEqual(fingerprint, SignedResetTokens.fingerprint(passwordHash));
+        }
+    }
+
+    public String issue(int userId, String passwordHash, long expiresAtMillis) {
+        ByteBuffer token = ByteBuffer.allocate(PAYLOAD_LENGTH + SIGNATURE_LENGTH);
+        token.putInt(userId);
+        token.putLong(expiresAtMillis);
+        token.put(fingerprint(passwordHash));
+        token.put(sign(token.array(), PAYLOAD_LENGTH));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    // Check signature and expiry in memory; the fingerprint is left for the caller to compare with the stored hash
+    public Claims verify(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new RuntimeException("Invalid reset token");
+        }
+        if (bytes.length != PAYLOAD_LENGTH + SIGNATURE_LENGTH) {
+            throw new RuntimeException("Invalid reset token");
+        }
+        byte[] signature = Arrays.copyOfRange(bytes, PAYLOAD_LENGTH, bytes.length);
+        if (!MessageDigest.isEqual(signature, sign(bytes, PAYLOAD_LENGTH))) {
+            throw new RuntimeException("Invalid reset token");
+        }
+
+        ByteBuffer payload = ByteBuffer.wrap(bytes, 0, PAYLOAD_LENGTH);
+        int userId = payload.getInt();
+        long expiresAtMillis = payload.getLong();
+        if (expiresAtMillis < System.currentTimeMillis()) {
+            throw new RuntimeException("Reset token has expired");
+        }
+        byte[] fingerprint = new byte[FINGERPRINT_LENGTH];
+        payload.get(fingerprint);
+        return new Claims(userId, fingerprint);
+    }
+
+    private byte[] sign(byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // A short digest of the password hash: enough to notice a change, without putting the hash itself in an email
+    private static byte[] fingerprint(String passwordHash) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(passwordHash).getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(digest, FINGERPRINT_LENGTH);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.dto.UserImportErrorDTO;
+import com.studyfi.userandgroup.user.dto.UserImportProgressDTO;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+// Bulk user import from CSV (with a header row) or NDJSON, one user per row or line, in the shape of UserDTO.
+// Rows are validated, hashed and inserted a batch at a time, so memory stays bounded however large the file is.
+// The outcome is written as NDJSON: one error line per rejected row and a progress line after every batch.
+@Service
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final PasswordHasher passwordHasher;
+    private final UserSearchIndex userSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+
+    public UserImportService(UserJdbcRepo userJdbcRepo, PasswordHasher passwordHasher, UserSearchIndex userSearchIndex,
+                             TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                             @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.userJdbcRepo = userJdbcRepo;
+        this.passwordHasher = passwordHasher;
+        this.userSearchIndex = userSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+
+        // Columns are matched by header name; unknown columns are ignored and empty cells read as null
+        CsvMapper csvMapper = CsvMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        this.csvReader = csvMapper.readerFor(UserDTO.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    // A validated row waiting for its batch to be written
+    private record PendingUser(long row, User user, String rawPassword) {
+    }
+
+    private static final class Totals {
+        long processed;
+        long imported;
+        long failed;
+    }
+
+    public void importUsers(InputStream input, Format format, OutputStream output) throws IOException {
+        ObjectReader reader = format == Format.CSV ? csvReader : objectMapper.readerFor(UserDTO.class);
+        try (MappingIterator<UserDTO> rows = reader.readValues(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            Totals totals = new Totals();
+            List<PendingUser> batch = new ArrayList<>(batchSize);
+            Set<String> batchEmails = new HashSet<>();
+            long row = 0;
+            while (true) {
+                UserDTO userDTO;
+                row++;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    totals.processed++;
+                    userDTO = rows.nextValue();
+                } catch (JsonMappingException ex) {
+                    // A row with values of the wrong shape: report it and carry on with the next one
+                    reject(generator, totals, row, null, ex.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException ex) {
+                    // The file itself is malformed, so nothing after this point can be read reliably
+                    totals.processed = row;
+                    reject(generator, totals, row, null, "Import stopped: " + ex.getOriginalMessage());
+                    break;
+                }
+
+                String email = UserService.normalizeEmail(userDTO.getEmail());
+                String error = validate(userDTO, email);
+                if (error == null && !batchEmails.add(email)) {
+                    error = "Email appears more than once in the import";
+                }
+                if (error != null) {
+                    reject(generator, totals, row, email, error);
+                    continue;
+                }
+
+                User user = new User();
+                user.setName(userDTO.getName());
+                user.setEmail(email);
+                user.setPhoneContact(userDTO.getPhoneContact());
+                user.setBirthDate(userDTO.getBirthDate());
+                user.setCountry(userDTO.getCountry());
+                user.setAboutMe(userDTO.getAboutMe());
+                user.setCurrentAddress(userDTO.getCurrentAddress());
+                batch.add(new PendingUser(row, user, userDTO.getPassword()));
+
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, generator, totals);
+                    batch.clear();
+                    batchEmails.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, generator, totals);
+            }
+            objectMapper.writeValue(generator, new UserImportProgressDTO(totals.processed, totals.imported, totals.failed, true));
+        }
+    }
+
+    // Same rules as registration, except that the password may be left out (users then set one via forgot-password)
+    private static String validate(UserDTO userDTO, String email) {
+        if (userDTO.getName() == null || userDTO.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (!UserService.isValidEmail(email)) {
+            return "Invalid email";
+        }
+        if (userDTO.getPassword() != null) {
+            try {
+                UserService.validatePassword(userDTO.getPassword());
+            } catch (IllegalArgumentException ex) {
+                return ex.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private void writeBatch(List<PendingUser> batch, JsonGenerator generator, Totals totals) throws IOException {
+        // Emails registered before this batch (or by an earlier batch) are rejected before any hashing is spent on them
+        Set<String> registered = userJdbcRepo.findIdsByEmail(batch.stream().map(pending -> pending.user().getEmail()).toList()).keySet();
+        List<PendingUser> toInsert = new ArrayList<>(batch.size());
+        for (PendingUser pending : batch) {
+            if (registered.contains(pending.user().getEmail())) {
+                reject(generator, totals, pending.row(), pending.user().getEmail(), "Email already registered");
+            } else {
+                toInsert.add(pending);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            List<String> hashes = passwordHasher.encodeAll(toInsert.stream().map(PendingUser::rawPassword).toList());
+            List<User> users = new ArrayList<>(toInsert.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                User user = toInsert.get(i).user();
+                user.setPassword(hashes.get(i));
+                users.add(user);
+            }
+
+            List<User> inserted;
+            try {
+                transactionTemplate.executeWithoutResult(tx -> userJdbcRepo.batchInsert(users));
+                inserted = users;
+            } catch (DuplicateKeyException ex) {
+                // Someone registered one of these emails since the check above; redo this batch one row at a time
+                inserted = new ArrayList<>();
+                for (PendingUser pending : toInsert) {
+                    try {
+                        userJdbcRepo.batchInsert(List.of(pending.user()));
+                        inserted.add(pending.user());
+                    } catch (DuplicateKeyException duplicate) {
+                        reject(generator, totals, pending.row(), pending.user().getEmail(), "Email already registered");
+                    }
+                }
+            }
+
+            // Ids are assigned by the database, so read them back to keep the typeahead index complete
+            if (!inserted.isEmpty()) {
+                Map<String, Integer> ids = userJdbcRepo.findIdsByEmail(inserted.stream().map(User::getEmail).toList());
+                for (User user : inserted) {
+                    userSearchIndex.put(ids.get(user.getEmail()), user.getName(), user.getEmail());
+                }
+                totals.imported += inserted.size();
+            }
+        }
+
+        objectMapper.writeValue(generator, new UserImportProgressDTO(totals.processed, totals.imported, totals.failed, false));
+        generator.flush();
+    }
+
+    private void reject(JsonGenerator generator, Totals totals, long row, String email, String message) throws IOException {
+        totals.failed++;
+        objectMapper.writeValue(generator, new UserImportErrorDTO(row, email, message));
+    }
+}
@@ -0,0 +1,244 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Typeahead index over user names and emails. Every word of the query must prefix-match a word of the name,
+// or the whole query must prefix-match the email. Names whose first word matches come first, then other
+// name matches, then email matches; ids ascend within each tier.
+// Each tier is walked in id order and stops once the page is full, so a keystroke costs about as much as the
+// users it returns: short prefixes have their bitmaps kept ready, and the email tier is only read when the
+// name tiers leave room on the page.
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int SHORT_PREFIX = 3;       // Prefixes up to this length have their union kept ready
+    private static final int MAX_UNION_TERMS = 64;   // A longer prefix matching more terms is checked user by user
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, UserSummaryDTO> users = new HashMap<>();
+    private final Terms nameFirstWords = new Terms(user -> {
+        List<String> words = words(normalize(user.getName()));
+        return words.isEmpty() ? List.of() : List.of(words.get(0));
+    });
+    private final Terms nameWords = new Terms(user -> words(normalize(user.getName())));
+    private final Terms emails = new Terms(user -> user.getEmail() == null ? List.of() : List.of(normalize(user.getEmail())));
+
+    public UserSearchIndex(UserJdbcRepo userJdbcRepo) {
+        this.userJdbcRepo = userJdbcRepo;
+    }
+
+    // Users matching one term prefix: the candidate ids, and the check a candidate must pass when they are not exact
+    private record Match(RoaringBitmap ids, Predicate<UserSummaryDTO> check) {
+    }
+
+    // Load every user; runs before the web server starts taking requests
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            nameFirstWords.clear();
+            nameWords.clear();
+            emails.clear();
+            userJdbcRepo.forEachUserSummary(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built user search index over {} users in {} ms", users.size(), System.currentTimeMillis() - start);
+    }
+
+    // Add a user or replace what is indexed for them
+    public void put(Integer id, String name, String email) {
+        UserSummaryDTO user = new UserSummaryDTO(id, name, email);
+        lock.writeLock().lock();
+        try {
+            UserSummaryDTO previous = users.get(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<UserSummaryDTO> search(String query, int limit) {
+        String key = normalize(query).trim();
+        List<String> tokens = words(key);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<UserSummaryDTO> results = new ArrayList<>(limit);
+            RoaringBitmap seen = new RoaringBitmap();
+            if (!tokens.isEmpty()) {
+                List<Match> nameMatches = tokens.stream().map(nameWords::match).toList();
+                List<Match> firstWordMatches = new ArrayList<>(nameMatches);
+                firstWordMatches.add(nameFirstWords.match(tokens.get(0)));
+                collect(firstWordMatches, limit, seen, results);
+                collect(nameMatches, limit, seen, results);
+            }
+            if (results.size() < limit) {
+                collect(List.of(emails.match(key)), limit, seen, results);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add the users every match accepts, in id order, until the page is full. The walk follows the smallest bitmap.
+    private void collect(List<Match> matches, int limit, RoaringBitmap seen, List<UserSummaryDTO> results) {
+        Match smallest = Collections.min(matches, Comparator.comparingLong(match -> match.ids().getLongCardinality()));
+        PeekableIntIterator ids = smallest.ids().getIntIterator();
+        while (ids.hasNext() && results.size() < limit) {
+            int id = ids.next();
+            if (!seen.contains(id) && acceptsAll(matches, id)) {
+                seen.add(id);
+                results.add(users.get(id));
+            }
+        }
+    }
+
+    private boolean acceptsAll(List<Match> matches, int id) {
+        for (Match match : matches) {
+            if (!match.ids().contains(id)) {
+                return false;
+            }
+        }
+        for (Match match : matches) {
+            if (match.check() != null && !match.check().test(users.get(id))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(UserSummaryDTO user) {
+        users.put(user.getId(), user);
+        nameFirstWords.add(user);
+        nameWords.add(user);
+        emails.add(user);
+    }
+
+    private void unindex(UserSummaryDTO user) {
+        users.remove(user.getId());
+        nameFirstWords.remove(user);
+        nameWords.remove(user);
+        emails.remove(user);
+    }
+
+    // One kind of term (first name word, name word, email) with the postings of each term
+    // and of each prefix of up to SHORT_PREFIX characters
+    private static final class Terms {
+
+        private final Function<UserSummaryDTO, List<String>> termsOf;
+        private final NavigableMap<String, RoaringBitmap> postings = new TreeMap<>();
+        private final Map<String, RoaringBitmap> shortPrefixes = new HashMap<>();
+
+        Terms(Function<UserSummaryDTO, List<String>> termsOf) {
+            this.termsOf = termsOf;
+        }
+
+        void add(UserSummaryDTO user) {
+            for (String term : termsOf.apply(user)) {
+                postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(user.getId());
+                for (String prefix : shortPrefixes(term)) {
+                    shortPrefixes.computeIfAbsent(prefix, p -> new RoaringBitmap()).add(user.getId());
+                }
+            }
+        }
+
+        // Removes every term of the user at once, since two of their terms may share a short prefix
+        void remove(UserSummaryDTO user) {
+            Set<String> prefixes = new HashSet<>();
+            for (String term : termsOf.apply(user)) {
+                removeFromPosting(postings, term, user.getId());
+                prefixes.addAll(shortPrefixes(term));
+            }
+            for (String prefix : prefixes) {
+                removeFromPosting(shortPrefixes, prefix, user.getId());
+            }
+        }
+
+        void clear() {
+            postings.clear();
+            shortPrefixes.clear();
+        }
+
+        // Users with a term starting with the prefix. A long prefix that matches many terms is narrowed
+        // by its first SHORT_PREFIX characters instead, leaving the rest to a check on each candidate.
+        Match match(String prefix) {
+            if (prefix.length() <= SHORT_PREFIX) {
+                return new Match(shortPrefixes.getOrDefault(prefix, EMPTY), null);
+            }
+            List<RoaringBitmap> found = new ArrayList<>();
+            for (RoaringBitmap posting : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                if (found.size() == MAX_UNION_TERMS) {
+                    return new Match(shortPrefixes.getOrDefault(prefix.substring(0, SHORT_PREFIX), EMPTY),
+                            user -> termsOf.apply(user).stream().anyMatch(term -> term.startsWith(prefix)));
+                }
+                found.add(posting);
+            }
+            return switch (found.size()) {
+                case 0 -> new Match(EMPTY, null);
+                case 1 -> new Match(found.get(0), null);
+                default -> new Match(FastAggregation.or(found.iterator()), null);
+            };
+        }
+
+        private static List<String> shortPrefixes(String term) {
+            List<String> prefixes = new ArrayList<>(SHORT_PREFIX);
+            for (int length = 1; length <= Math.min(SHORT_PREFIX, term.length()); length++) {
+                prefixes.add(term.substring(0, length));
+            }
+            return prefixes;
+        }
+    }
+
+    private static void removeFromPosting(Map<String, RoaringBitmap> postings, String term, int id) {
+        RoaringBitmap posting = postings.get(term);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,106 +1,223 @@
 package com.studyfi.userandgroup.user.service;
 
-import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.batch.BatchEntryDTO;
+import com.studyfi.userandgroup.batch.BatchLookup;
+import com.studyfi.userandgroup.config.CacheConfig;
+import com.studyfi.userandgroup.mail.service.MailOutboxService;
+import com.studyfi.userandgroup.membership.service.MembershipService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.studyfi.userandgroup.user.dto.PasswordResetDTO;
 import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.dto.UserPageDTO;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.mapper.UserMapper;
 import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserField;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
 import com.studyfi.userandgroup.user.repo.UserRepo;
-import com.studyfi.userandgroup.group.repo.GroupRepo;
-import org.modelmapper.ModelMapper;
+import com.studyfi.userandgroup.web.ETags;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    private static final String EMAIL_INDEX = "uk_user_email";  // See the indexes on User
+
     private final UserRepo userRepo;
-    private final GroupRepo groupRepo;
-    private final ModelMapper modelMapper;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final UserJdbcRepo userJdbcRepo;
+    private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userStreamWriter;
+    private final MailOutboxService mailOutboxService;
+    private final MembershipService membershipService;
+    private final UserSearchIndex userSearchIndex;
+    private final SignedResetTokens signedResetTokens;
+    private final BatchLookup batchLookup;
+    private final Cache userCache;
 
     @Autowired
-    public UserService(UserRepo userRepo, GroupRepo groupRepo, ModelMapper modelMapper, BCryptPasswordEncoder passwordEncoder) {
+    public UserService(UserRepo userRepo, UserJdbcRepo userJdbcRepo, UserMapper userMapper,
+                       PasswordHasher passwordHasher, ObjectMapper objectMapper, MailOutboxService mailOutboxService,
+                       MembershipService membershipService, UserSearchIndex userSearchIndex,
+                       SignedResetTokens signedResetTokens, BatchLookup batchLookup, CacheManager cacheManager) {
         this.userRepo = userRepo;
-        this.groupRepo = groupRepo;
-        this.modelMapper = modelMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.userJdbcRepo = userJdbcRepo;
+        this.userMapper = userMapper;
+        this.passwordHasher = passwordHasher;
+        this.objectMapper = objectMapper;
+        this.userStreamWriter = objectMapper.writerFor(UserDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.mailOutboxService = mailOutboxService;
+        this.membershipService = membershipService;
+        this.userSearchIndex = userSearchIndex;
+        this.signedResetTokens = signedResetTokens;
+        this.batchLookup = batchLookup;
+        this.userCache = cacheManager.getCache(CacheConfig.USERS);
     }
 
     @Value("${app.reset-password-url}")  // Using an external property for the base URL
     private String resetPasswordUrl;
 
-    @Autowired
-    private JavaMailSender mailSender; // autowired JavaMailSender
+    @Value("${app.reset-token.mode:database}")
+    private ResetTokenMode resetTokenMode;
 
     // Register a new user
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#result.id")
     public UserDTO registerUser(UserDTO userDTO) {
         // Validate password for registration
         validatePassword(userDTO.getPassword());
 
-        User user = modelMapper.map(userDTO, User.class);
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));  // Encrypt password during registration
-        userRepo.save(user);
-        return modelMapper.map(user, UserDTO.class);
+        User user = userMapper.toEntity(userDTO);
+        user.setEmail(normalizeEmail(userDTO.getEmail()));
+        user.setPassword(passwordHasher.encode(userDTO.getPassword()));  // Encrypt password during registration
+        user = saveUnique(user);  // The unique email index rejects duplicate registrations
+        userSearchIndex.put(user.getId(), user.getName(), user.getEmail());
+        return userMapper.toDTO(user);
     }
 
     // Get all users
     public List<UserDTO> getAllUsers() {
         return userRepo.findAll().stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
+                .map(userMapper::toDTO)
                 .toList();
     }
 
-    // Get user by ID
+    // Get one page of users after the given id (keyset pagination on id)
+    public UserPageDTO<UserDTO> getUsersPage(Integer afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to find out whether another page exists
+        List<User> users = userRepo.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0 : afterId, Limit.of(pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        List<UserDTO> page = users.stream()
+                .limit(pageSize)
+                .map(userMapper::toDTO)
+                .toList();
+
+        Integer nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new UserPageDTO<>(page, nextCursor);
+    }
+
+    // Get all users with only the requested fields, read straight from those columns
+    public List<Map<String, Object>> getAllUsers(Set<UserField> fields) {
+        return userJdbcRepo.findAllFields(fields);
+    }
+
+    // Same as getUsersPage, with only the requested fields
+    public UserPageDTO<Map<String, Object>> getUsersPage(Integer afterId, int size, Set<UserField> fields) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Map<String, Object>> users = userJdbcRepo.findFieldsPage(fields, afterId == null ? 0 : afterId, pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        List<Map<String, Object>> page = hasMore ? users.subList(0, pageSize) : users;
+
+        Integer nextCursor = hasMore ? (Integer) page.get(page.size() - 1).get(UserField.ID.getProperty()) : null;
+        return new UserPageDTO<>(page, nextCursor);
+    }
+
+    // Stream all users as a JSON array, writing each row as it is read from the database.
+    // The generator is only flushed when its buffer fills up, not after every row.
+    public void streamUsers(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            userJdbcRepo.forEachUser(user -> {
+                try {
+                    userStreamWriter.writeValue(generator, user);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    // Get user by ID, served from the cache when possible
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
     public UserDTO getUserById(Integer userId) {
         User user = userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDTO(user);
     }
 
-    // The method to send reset link email with token and expiration time
-    public void sendPasswordResetLink(String email) {
-        // Generate a random token for password reset
-        String resetToken = UUID.randomUUID().toString();
+    // Get a user by ID with only the requested fields; not cached, since it reads just those columns
+    public Map<String, Object> getUserById(Integer userId, Set<UserField> fields) {
+        Map<String, Object> user = userJdbcRepo.findFieldsById(userId, fields);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
+    // Get many users by ID in request order, from the cache where possible and chunked IN queries otherwise
+    public List<BatchEntryDTO<UserDTO>> getUsersByIds(List<Integer> userIds) {
+        return batchLookup.lookup(userIds, CacheConfig.USERS, UserDTO.class, userJdbcRepo::findByIds, UserDTO::getId);
+    }
 
+    // The method to create a reset token and queue the reset link email in the same transaction
+    @Transactional
+    public void sendPasswordResetLink(String email) {
         // Set the expiration time for the token (e.g., 1 hour from now)
         Date expiryDate = new Date(System.currentTimeMillis() + 3600 * 1000);  // 1 hour expiry time
 
-        // Save this reset token and expiration time in the database for the user
-        User user = userRepo.findByEmail(email);
+        User user = userRepo.findByEmail(normalizeEmail(email));
         if (user == null) {
             throw new RuntimeException("User not found");
         }
-        user.setResetToken(resetToken);
-        user.setResetTokenExpiry(expiryDate);  // Save the expiration time
-        userRepo.save(user);  // Save the user with the reset token and expiry time
+
+        String resetToken;
+        if (resetTokenMode == ResetTokenMode.SIGNED) {
+            // Nothing is written to the user row: the token carries its own expiry and signature
+            resetToken = signedResetTokens.issue(user.getId(), user.getPassword(), expiryDate.getTime());
+        } else {
+            // Generate a random token and save it with its expiration time on the user, leaving the version alone
+            resetToken = UUID.randomUUID().toString();
+            userRepo.updateResetToken(user.getId(), resetToken, expiryDate);
+        }
 
         // Create the complete URL for password reset with the real domain
         String resetLink = resetPasswordUrl + "?token=" + resetToken;
 
-        // Prepare the email message
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("Password Reset Request");
-        message.setText("Click the following link to reset your password: " + resetLink);
-
-        // Send the email
-        try {
-            mailSender.send(message);
-            System.out.println("Password reset email sent to: " + email);
-        } catch (Exception ex) {
-            System.err.println("Error sending email: " + ex.getMessage());
-        }
+        // Queue the email; MailDispatcher sends it once this transaction commits
+        mailOutboxService.enqueue(user.getEmail(), "Password Reset Request",
+                "Click the following link to reset your password: " + resetLink);
     }
 
     // The method to reset the user's password using the reset token
     public void resetPassword(String token, PasswordResetDTO passwordResetDTO) {
+        if (resetTokenMode == ResetTokenMode.SIGNED) {
+            resetPasswordWithSignedToken(token, passwordResetDTO);
+            return;
+        }
+
         // Find the user by the reset token
         User user = userRepo.findByResetToken(token);
         if (user == null) {
@@ -116,29 +233,49 @@ public class UserService {
         validatePassword(passwordResetDTO.getNewPassword());
 
         // Encrypt the new password before saving
-        user.setPassword(passwordEncoder.encode(passwordResetDTO.getNewPassword()));  // BCrypt encoding
+        String newPassword = passwordHasher.encode(passwordResetDTO.getNewPassword());  // BCrypt encoding
+
+        // Save it and clear the token in one conditional update, so a token racing with itself is only spent once
+        if (userRepo.resetPasswordWithToken(user.getId(), token, newPassword) == 0) {
+            throw new RuntimeException("Invalid reset token");
+        }
+        // The update has committed and bumped the version, so the cached profile (and its ETag) is stale
+        userCache.evict(user.getId());
+    }
 
-        // Clear the reset token and expiry after the password reset
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
+    // Signature and expiry are checked in memory, so forged or stale tokens never reach the database.
+    // The write is a compare-and-set on the old hash: once the password changes the token is spent, even if two resets race.
+    private void resetPasswordWithSignedToken(String token, PasswordResetDTO passwordResetDTO) {
+        SignedResetTokens.Claims claims = signedResetTokens.verify(token);
+        validatePassword(passwordResetDTO.getNewPassword());
 
-        // Save the updated user
-        userRepo.save(user);
+        User user = userRepo.findById(claims.userId()).orElseThrow(() -> new RuntimeException("Invalid reset token"));
+        if (!claims.matches(user.getPassword())) {
+            throw new RuntimeException("Reset token has already been used");
+        }
+
+        String newPassword = passwordHasher.encode(passwordResetDTO.getNewPassword());
+        if (userRepo.updatePasswordIfUnchanged(user.getId(), user.getPassword(), newPassword) == 0) {
+            throw new RuntimeException("Reset token has already been used");
+        }
+        userCache.evict(user.getId());  // The committed update bumped the version
     }
 
-    // Update user profile
-    public UserDTO updateUserProfile(Integer userId, UserDTO userDTO) {
+    // Update user profile; expectedVersion (from If-Match, may be null) must still be the stored version
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserDTO updateUserProfile(Integer userId, UserDTO userDTO, Long expectedVersion) {
         // Fetch the existing user from the database
         User user = userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        ETags.checkVersion(user.getVersion(), expectedVersion);
 
         // Update the user fields with new data
         user.setName(userDTO.getName());
-        user.setEmail(userDTO.getEmail());
+        user.setEmail(normalizeEmail(userDTO.getEmail()));
 
         // Validate the new password before updating it
         validatePassword(userDTO.getPassword());
         // Encrypt the password before saving
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        user.setPassword(passwordHasher.encode(userDTO.getPassword()));
 
         user.setPhoneContact(userDTO.getPhoneContact());
         user.setBirthDate(userDTO.getBirthDate());
@@ -147,29 +284,105 @@ public class UserService {
         user.setCurrentAddress(userDTO.getCurrentAddress());
 
         // Save the updated user to the repository
-        userRepo.save(user);
-        return modelMapper.map(user, UserDTO.class);
+        user = saveUnique(user);
+        userSearchIndex.put(user.getId(), user.getName(), user.getEmail());
+        return userMapper.toDTO(user);
     }
 
-    // Add user to a group
-    public void addUserToGroup(Integer userId, Integer groupId) {
+    // Partially update a user profile: null fields are left as they are, and the password is only hashed when a new one is given.
+    // Like updateUserProfile this is not one transaction: the hash is computed before the user is read, so no connection
+    // is held through BCrypt, and @Version on the save still catches a concurrent change in between.
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserDTO patchUserProfile(Integer userId, UserDTO userDTO, Long expectedVersion) {
+        String newPassword = null;
+        if (userDTO.getPassword() != null) {
+            validatePassword(userDTO.getPassword());
+            newPassword = passwordHasher.encode(userDTO.getPassword());
+        }
+
         User user = userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        Group group = groupRepo.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        ETags.checkVersion(user.getVersion(), expectedVersion);
 
-        user.getGroups().add(group);
-        group.getUsers().add(user);
+        if (newPassword != null) {
+            user.setPassword(newPassword);
+        }
+        if (userDTO.getName() != null) {
+            user.setName(userDTO.getName());
+        }
+        if (userDTO.getEmail() != null) {
+            user.setEmail(normalizeEmail(userDTO.getEmail()));
+        }
+        if (userDTO.getPhoneContact() != null) {
+            user.setPhoneContact(userDTO.getPhoneContact());
+        }
+        if (userDTO.getBirthDate() != null) {
+            user.setBirthDate(userDTO.getBirthDate());
+        }
+        if (userDTO.getCountry() != null) {
+            user.setCountry(userDTO.getCountry());
+        }
+        if (userDTO.getAboutMe() != null) {
+            user.setAboutMe(userDTO.getAboutMe());
+        }
+        if (userDTO.getCurrentAddress() != null) {
+            user.setCurrentAddress(userDTO.getCurrentAddress());
+        }
+
+        // Only the changed columns are written (see @DynamicUpdate on User), or nothing at all
+        user = saveUnique(user);
+        userSearchIndex.put(user.getId(), user.getName(), user.getEmail());
+        return userMapper.toDTO(user);
+    }
+
+    // Find users whose name words or email start with the query, for typeahead
+    public List<UserSummaryDTO> searchUsers(String query, int limit) {
+        return userSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    // Add user to a group; writes the user_group row directly instead of loading both collections
+    public void addUserToGroup(Integer userId, Integer groupId) {
+        membershipService.addMember(userId, groupId);
+    }
+
+    // Remove user from a group
+    public void removeUserFromGroup(Integer userId, Integer groupId) {
+        membershipService.removeMember(userId, groupId);
+    }
+
+    // Emails are stored and looked up trimmed and lower-cased so the unique index is case-insensitive
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Save and flush straight away so a clash on the unique email index surfaces here as a 409,
+    // and a concurrent update of the same version (caught by @Version) as a 412. Other violations are rethrown as they are.
+    private User saveUnique(User user) {
+        try {
+            return userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (violates(ex, EMAIL_INDEX)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
+            }
+            throw ex;
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "User was modified concurrently");
+        }
+    }
 
-        userRepo.save(user);
-        groupRepo.save(group);
+    // Whether the named constraint is the one the database reported; drivers may qualify or suffix the name
+    private static boolean violates(DataIntegrityViolationException ex, String constraint) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
     }
 
-    private boolean isValidEmail(String email) {
+    static boolean isValidEmail(String email) {
         String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";  // Simple regex to validate email format
         return email != null && email.matches(emailRegex);
     }
 
-    // Password validation logic
-    private void validatePassword(String password) {
+    // Password validation logic (package-private so the benchmarks can measure it)
+    static void validatePassword(String password) {
         if (password == null || password.isEmpty()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
@@ -0,0 +1,95 @@
+package com.studyfi.userandgroup.batch;
+
+import com.studyfi.userandgroup.config.CacheConfig;
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.group.service.GroupService;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.batch.chunk-size=2")
+@AutoConfigureMockMvc
+class BatchLookupTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	@Autowired
+	private GroupService groupService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+		groupRepo.deleteAll();
+	}
+
+	@Test
+	void usersComeBackInRequestOrderWithMissingIdsMarked() throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setName("User " + i);
+			user.setEmail("user" + i + "@studyfi.com");
+			ids.add(userRepo.save(user).getId());
+		}
+		String body = "[%d, 999999, %d, %d, %d, %d, %d]".formatted(
+				ids.get(4), ids.get(0), ids.get(2), ids.get(1), ids.get(3), ids.get(4));
+
+		// Five distinct users over chunks of two
+		mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(7))
+				.andExpect(jsonPath("$[0].item.name").value("User 4"))
+				.andExpect(jsonPath("$[1].id").value(999999))
+				.andExpect(jsonPath("$[1].found").value(false))
+				.andExpect(jsonPath("$[1].item").doesNotExist())
+				.andExpect(jsonPath("$[2].item.email").value("user0@studyfi.com"))
+				.andExpect(jsonPath("$[5].item.name").value("User 3"))
+				.andExpect(jsonPath("$[6].found").value(true));
+
+		// Loaded users are cached for later single and batch reads
+		assertNotNull(cacheManager.getCache(CacheConfig.USERS).get(ids.get(2)));
+	}
+
+	@Test
+	void groupsAreLookedUpTheSameWay() throws Exception {
+		GroupDTO group = new GroupDTO();
+		group.setName("Algebra");
+		Integer groupId = groupService.createGroup(group).getId();
+
+		mockMvc.perform(post("/groups/batch").contentType(MediaType.APPLICATION_JSON).content("[999999, " + groupId + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].found").value(false))
+				.andExpect(jsonPath("$[1].item.name").value("Algebra"));
+	}
+
+	@Test
+	void rejectsNullIds() throws Exception {
+		mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON).content("[1, null]"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,107 @@
+package com.studyfi.userandgroup.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.group.service.GroupService;
+import com.studyfi.userandgroup.membership.service.MembershipService;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	@Autowired
+	private GroupService groupService;
+
+	@Autowired
+	private MembershipService membershipService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+		groupRepo.deleteAll();
+	}
+
+	@Test
+	void exportsEveryRecordTypeAndCompressesOnRequest() throws Exception {
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		user.setPassword("secret-hash");
+		Integer userId = userRepo.save(user).getId();
+		GroupDTO group = new GroupDTO();
+		group.setName("Algebra");
+		Integer groupId = groupService.createGroup(group).getId();
+		membershipService.addMember(userId, groupId);
+
+		byte[] plain = mockMvc.perform(get("/export"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse().getContentAsByteArray();
+		List<JsonNode> lines = readLines(plain);
+		assertEquals(4, lines.size());
+		assertEquals("jane@studyfi.com", lines.get(0).get("user").get("email").asText());
+		assertFalse(lines.get(0).get("user").has("password"));
+		assertEquals("Algebra", lines.get(1).get("group").get("name").asText());
+		assertEquals(userId, lines.get(2).get("membership").get("userId").asInt());
+		assertEquals(groupId, lines.get(2).get("membership").get("groupId").asInt());
+		JsonNode end = lines.get(3).get("end");
+		assertEquals(1, end.get("user").asInt());
+		assertEquals(1, end.get("group").asInt());
+		assertEquals(1, end.get("membership").asInt());
+
+		byte[] compressed = mockMvc.perform(get("/export").param("include", "MEMBERSHIPS")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			List<JsonNode> memberships = readLines(gzip.readAllBytes());
+			assertEquals(2, memberships.size());
+			assertTrue(memberships.get(0).has("membership"));
+			assertTrue(memberships.get(1).has("end"));
+		}
+	}
+
+	private List<JsonNode> readLines(byte[] body) throws IOException {
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+}
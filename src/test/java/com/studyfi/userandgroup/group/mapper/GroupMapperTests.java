@@ -0,0 +1,44 @@
+package com.studyfi.userandgroup.group.mapper;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.model.Group;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupMapperTests {
+
+	private final ModelMapper modelMapper = new ModelMapper();
+	private final GroupMapper groupMapper = new GroupMapper();
+
+	@Test
+	void toDTOMatchesModelMapper() {
+		Group group = new Group();
+		group.setId(3);
+		group.setName("Algorithms");
+		group.setDescription("Weekly problem sets");
+
+		GroupDTO expected = modelMapper.map(group, GroupDTO.class);
+		GroupDTO actual = groupMapper.toDTO(group);
+
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getDescription(), actual.getDescription());
+	}
+
+	@Test
+	void toEntityMatchesModelMapper() {
+		GroupDTO groupDTO = new GroupDTO();
+		groupDTO.setId(3);
+		groupDTO.setName("Algorithms");
+
+		Group expected = modelMapper.map(groupDTO, Group.class);
+		Group actual = groupMapper.toEntity(groupDTO);
+
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertNull(actual.getUsers());
+	}
+}
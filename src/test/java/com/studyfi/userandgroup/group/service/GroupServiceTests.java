@@ -0,0 +1,140 @@
+package com.studyfi.userandgroup.group.service;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.dto.GroupPageDTO;
+import com.studyfi.userandgroup.group.dto.GroupSummaryDTO;
+import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class GroupServiceTests {
+
+	@Autowired
+	private GroupService groupService;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+		groupRepo.deleteAll();
+	}
+
+	@Test
+	void pageReportsMemberCountsSortedByCount() {
+		Group empty = saveGroup("empty");
+		Group small = saveGroup("small");
+		Group large = saveGroup("large");
+		saveUser("a", List.of(small, large));
+		saveUser("b", List.of(large));
+		saveUser("c", List.of(large));
+		userRepo.flush();
+
+		GroupPageDTO page = groupService.getGroupsPage(0, 10, "memberCount", "desc");
+
+		List<GroupSummaryDTO> groups = page.getGroups();
+		assertEquals(3, page.getTotalElements());
+		assertEquals(List.of(large.getId(), small.getId(), empty.getId()),
+				groups.stream().map(GroupSummaryDTO::getId).toList());
+		assertEquals(List.of(3L, 1L, 0L), groups.stream().map(GroupSummaryDTO::getMemberCount).toList());
+	}
+
+	@Test
+	void rejectsUnknownSortField() {
+		assertThrows(IllegalArgumentException.class, () -> groupService.getGroupsPage(0, 10, "password", "asc"));
+	}
+
+	@Test
+	void searchRanksNameMatchesBeforeDescriptionMatches() {
+		GroupDTO inDescription = createGroup("Reading circle", "We read about zymurgy and brewing");
+		GroupDTO namePrefix = createGroup("Zymurgy club", "Home brewers");
+		GroupDTO exactName = createGroup("Zymurgy", null);
+		GroupDTO nameSubstring = createGroup("Applied zymurgy", "Fermentation science");
+
+		GroupPageDTO page = groupService.searchGroups("ZYMURGY", 0, 10);
+
+		assertEquals(4, page.getTotalElements());
+		assertEquals(List.of(exactName.getId(), namePrefix.getId(), nameSubstring.getId(), inDescription.getId()),
+				page.getGroups().stream().map(GroupSummaryDTO::getId).toList());
+	}
+
+	@Test
+	void searchKeepsMultiWordMatchesThatFailAHigherTier() {
+		createGroup("Brannock Blake", null);
+		GroupDTO decoyWithDescription = createGroup("Brannock Doe", "Brannock Smythe fan club");
+		GroupDTO namePrefix = createGroup("Brannock Smythe study", null);
+		GroupDTO inDescription = createGroup("Weekly notes", "brannock smythe reading group");
+
+		GroupPageDTO page = groupService.searchGroups("brannock sm", 0, 10);
+
+		assertEquals(List.of(namePrefix.getId(), decoyWithDescription.getId(), inDescription.getId()),
+				page.getGroups().stream().map(GroupSummaryDTO::getId).toList());
+		assertEquals(3, page.getTotalElements());
+	}
+
+	@Test
+	void searchFollowsUpdatesAndMatchesShortPrefixes() {
+		GroupDTO group = createGroup("Quantum quorum", "Physics");
+		assertEquals(List.of(group.getId()), searchIds("qu"));
+
+		GroupDTO renamed = new GroupDTO();
+		renamed.setName("Xylophone ensemble");
+		renamed.setDescription("Music");
+		groupService.updateGroup(group.getId(), renamed, null);
+
+		assertEquals(List.of(), searchIds("quorum"));
+		assertEquals(List.of(group.getId()), searchIds("xy"));
+		assertEquals(List.of(group.getId()), searchIds("phone"));
+	}
+
+	@Test
+	void searchPagesFarPastTheEndAreEmpty() {
+		createGroup("Oenology", "Wine tasting");
+
+		GroupPageDTO page = groupService.searchGroups("oenology", Integer.MAX_VALUE / 2, 10);
+
+		assertEquals(List.of(), page.getGroups());
+		assertEquals(1, page.getTotalElements());
+	}
+
+	private List<Integer> searchIds(String query) {
+		return groupService.searchGroups(query, 0, 10).getGroups().stream().map(GroupSummaryDTO::getId).toList();
+	}
+
+	private GroupDTO createGroup(String name, String description) {
+		GroupDTO groupDTO = new GroupDTO();
+		groupDTO.setName(name);
+		groupDTO.setDescription(description);
+		return groupService.createGroup(groupDTO);
+	}
+
+	private Group saveGroup(String name) {
+		Group group = new Group();
+		group.setName(name);
+		return groupRepo.save(group);
+	}
+
+	private void saveUser(String name, List<Group> groups) {
+		User user = new User();
+		user.setName(name);
+		user.setGroups(new ArrayList<>(groups));
+		userRepo.save(user);
+	}
+}
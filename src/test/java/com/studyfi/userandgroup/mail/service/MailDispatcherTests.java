@@ -0,0 +1,126 @@
+package com.studyfi.userandgroup.mail.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.studyfi.userandgroup.mail.model.OutboxMail;
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import com.studyfi.userandgroup.user.service.UserService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MailDispatcherTests {
+
+	// In-process SMTP server on the port configured in the test properties
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private MailDispatcher mailDispatcher;
+
+	@Autowired
+	private OutboxMailRepo outboxMailRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@BeforeEach
+	void setUp() {
+		outboxMailRepo.deleteAll();
+		userRepo.deleteAll();
+
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		userRepo.save(user);
+	}
+
+	@Test
+	void resetLinkIsQueuedThenSentByDispatcher() throws Exception {
+		userService.sendPasswordResetLink("jane@studyfi.com");
+
+		assertEquals(0, greenMail.getReceivedMessages().length);
+		assertEquals(1, mailDispatcher.dispatchPending());
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertEquals(1, received.length);
+		assertEquals("Password Reset Request", received[0].getSubject());
+
+		String token = userRepo.findByEmail("jane@studyfi.com").getResetToken();
+		assertTrue(((String) received[0].getContent()).contains("token=" + token));
+		assertEquals(OutboxStatus.SENT, outboxMailRepo.findAll().get(0).getStatus());
+	}
+
+	@Test
+	void failedSendIsRescheduledWithBackoff() {
+		userService.sendPasswordResetLink("jane@studyfi.com");
+		greenMail.stop();
+
+		assertEquals(0, mailDispatcher.dispatchPending());
+
+		List<OutboxMail> mails = outboxMailRepo.findAll();
+		assertEquals(OutboxStatus.PENDING, mails.get(0).getStatus());
+		assertEquals(1, mails.get(0).getAttempts());
+		assertTrue(mails.get(0).getNextAttemptAt().after(new Date()));
+		assertNotNull(mails.get(0).getLastError());
+	}
+
+	@Test
+	void concurrentRunsSendEachMailOnce() throws Exception {
+		for (int i = 0; i < 40; i++) {
+			saveMail(OutboxStatus.PENDING, new Date());
+		}
+
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(mailDispatcher::dispatchPending);
+		CompletableFuture<Integer> second = CompletableFuture.supplyAsync(mailDispatcher::dispatchPending);
+
+		assertEquals(40, first.get(30, TimeUnit.SECONDS) + second.get(30, TimeUnit.SECONDS));
+		assertEquals(40, greenMail.getReceivedMessages().length);
+		assertTrue(outboxMailRepo.findAll().stream().allMatch(mail -> mail.getStatus() == OutboxStatus.SENT));
+	}
+
+	@Test
+	void claimedMailIsLeftAloneUntilItsLeaseRunsOut() {
+		saveMail(OutboxStatus.SENDING, new Date(System.currentTimeMillis() + 60_000));  // Another run is sending it
+		saveMail(OutboxStatus.SENDING, new Date(System.currentTimeMillis() - 1));       // Its run died
+
+		assertEquals(1, mailDispatcher.dispatchPending());
+		assertEquals(1, greenMail.getReceivedMessages().length);
+	}
+
+	@Test
+	void unknownEmailQueuesNothing() {
+		assertThrows(RuntimeException.class, () -> userService.sendPasswordResetLink("nobody@studyfi.com"));
+		assertEquals(0, outboxMailRepo.count());
+	}
+
+	private void saveMail(OutboxStatus status, Date nextAttemptAt) {
+		OutboxMail mail = new OutboxMail();
+		mail.setRecipient("jane@studyfi.com");
+		mail.setSubject("Subject");
+		mail.setBody("Body");
+		mail.setStatus(status);
+		mail.setCreatedAt(new Date());
+		mail.setNextAttemptAt(nextAttemptAt);
+		outboxMailRepo.save(mail);
+	}
+}
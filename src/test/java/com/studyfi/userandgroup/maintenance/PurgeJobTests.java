@@ -0,0 +1,100 @@
+package com.studyfi.userandgroup.maintenance;
+
+import com.studyfi.userandgroup.mail.model.OutboxMail;
+import com.studyfi.userandgroup.mail.model.OutboxStatus;
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PurgeJobTests {
+
+	private static final long HOUR = 3600 * 1000;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private OutboxMailRepo outboxMailRepo;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PurgeJob purgeJob;
+
+	@BeforeEach
+	void setUp() {
+		outboxMailRepo.deleteAll();
+		userRepo.deleteAll();
+		// Tiny batches so the keyset walk crosses several of them
+		purgeJob = new PurgeJob(userRepo, outboxMailRepo, meterRegistry, 2, 0, Duration.ofDays(7));
+	}
+
+	@Test
+	void clearsOnlyExpiredResetTokens() {
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			saveUser("expired" + i, new Date(now - HOUR));
+		}
+		Integer freshId = saveUser("fresh", new Date(now + HOUR));
+		saveUser("none", null);
+
+		assertEquals(5, purgeJob.purgeExpiredResetTokens());
+
+		userRepo.findAll().forEach(user -> {
+			if (user.getId().equals(freshId)) {
+				assertEquals("token-fresh", user.getResetToken());
+			} else {
+				assertNull(user.getResetToken());
+				assertNull(user.getResetTokenExpiry());
+			}
+		});
+		assertEquals(5, meterRegistry.get("purge.reset.tokens.cleared").counter().count());
+	}
+
+	@Test
+	void deletesFinishedOutboxMailPastRetention() {
+		long now = System.currentTimeMillis();
+		saveMail(OutboxStatus.SENT, new Date(now - 8 * 24 * HOUR));
+		saveMail(OutboxStatus.FAILED, new Date(now - 8 * 24 * HOUR));
+		saveMail(OutboxStatus.SENT, new Date(now - 8 * 24 * HOUR));
+		saveMail(OutboxStatus.PENDING, new Date(now - 8 * 24 * HOUR));  // Still owed to someone
+		saveMail(OutboxStatus.SENT, new Date(now - HOUR));               // Within retention
+
+		assertEquals(3, purgeJob.purgeFinishedOutboxMail());
+
+		assertEquals(2, outboxMailRepo.count());
+		assertEquals(3, meterRegistry.get("purge.outbox.deleted").counter().count());
+	}
+
+	private Integer saveUser(String name, Date resetTokenExpiry) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "@studyfi.com");
+		if (resetTokenExpiry != null) {
+			user.setResetToken("token-" + name);
+			user.setResetTokenExpiry(resetTokenExpiry);
+		}
+		return userRepo.save(user).getId();
+	}
+
+	private void saveMail(OutboxStatus status, Date createdAt) {
+		OutboxMail mail = new OutboxMail();
+		mail.setRecipient("jane@studyfi.com");
+		mail.setSubject("Subject");
+		mail.setBody("Body");
+		mail.setStatus(status);
+		mail.setCreatedAt(createdAt);
+		mail.setNextAttemptAt(createdAt);
+		outboxMailRepo.save(mail);
+	}
+}
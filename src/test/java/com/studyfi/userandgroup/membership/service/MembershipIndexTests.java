@@ -0,0 +1,42 @@
+package com.studyfi.userandgroup.membership.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MembershipIndexTests {
+
+	private final MembershipIndex index = new MembershipIndex(null);
+
+	@Test
+	void concurrentAddsToOneGroupKeepEveryMember() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int userId = 1; userId <= 2000; userId++) {
+			List<Integer> userIds = List.of(userId);
+			executor.execute(() -> index.add(7, userIds));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(2000, index.memberCount(7));
+		assertArrayEquals(new int[]{7}, index.groupsOf(1234));
+	}
+
+	@Test
+	void removingTheLastMemberForgetsTheGroup() {
+		index.add(7, List.of(1, 2));
+		index.add(8, List.of(1));
+
+		index.remove(7, List.of(1, 2, 3));
+
+		assertEquals(0, index.memberCount(7));
+		assertArrayEquals(new int[]{8}, index.groupsOf(1));
+		assertArrayEquals(new int[0], index.groupsOf(2));
+		assertArrayEquals(new int[]{8}, index.sharedGroups(1, 1));
+	}
+}
@@ -0,0 +1,142 @@
+package com.studyfi.userandgroup.membership.service;
+
+import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.membership.dto.BulkMembershipResultDTO;
+import com.studyfi.userandgroup.membership.dto.MembershipAction;
+import com.studyfi.userandgroup.membership.dto.MembershipResultDTO;
+import com.studyfi.userandgroup.membership.dto.MembershipStatus;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MembershipServiceTests {
+
+	@Autowired
+	private MembershipService membershipService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Integer userId;
+	private Integer groupId;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setName("Jane");
+		userId = userRepo.save(user).getId();
+
+		Group group = new Group();
+		group.setName("Algorithms");
+		groupId = groupRepo.save(group).getId();
+	}
+
+	@Test
+	void addIsIdempotent() {
+		assertTrue(membershipService.addMember(userId, groupId));
+		assertFalse(membershipService.addMember(userId, groupId));
+		assertEquals(1, countMemberships());
+	}
+
+	@Test
+	void removeDeletesMembership() {
+		membershipService.addMember(userId, groupId);
+
+		assertTrue(membershipService.removeMember(userId, groupId));
+		assertFalse(membershipService.removeMember(userId, groupId));
+		assertEquals(0, countMemberships());
+	}
+
+	@Test
+	void addRejectsUnknownGroup() {
+		RuntimeException ex = assertThrows(RuntimeException.class, () -> membershipService.addMember(userId, -1));
+		assertEquals("Group not found", ex.getMessage());
+	}
+
+	@Test
+	void bulkAddReportsEveryIdInOrder() {
+		User other = new User();
+		other.setName("John");
+		Integer otherId = userRepo.save(other).getId();
+		membershipService.addMember(otherId, groupId);
+
+		BulkMembershipResultDTO result = membershipService.applyBulk(groupId, MembershipAction.ADD,
+				List.of(userId, otherId, -5, userId).iterator());
+
+		assertEquals(List.of(MembershipStatus.ADDED, MembershipStatus.ALREADY_MEMBER, MembershipStatus.USER_NOT_FOUND,
+				MembershipStatus.ALREADY_MEMBER), result.getResults().stream().map(MembershipResultDTO::getStatus).toList());
+		assertEquals(1, countMemberships());
+	}
+
+	@Test
+	void bulkRemoveReadsNdjson() throws Exception {
+		membershipService.addMember(userId, groupId);
+		String body = userId + "\n{\"userId\": " + userId + "}\n";
+
+		BulkMembershipResultDTO result = membershipService.applyBulk(groupId, MembershipAction.REMOVE,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(List.of(MembershipStatus.REMOVED, MembershipStatus.NOT_MEMBER),
+				result.getResults().stream().map(MembershipResultDTO::getStatus).toList());
+		assertEquals(0, countMemberships());
+	}
+
+	@Test
+	void bulkNdjsonReportsMalformedLinesAndAppliesTheRest() throws Exception {
+		String body = "{\"userId\": \"x\"}\nnot json\n" + userId + "\n";
+
+		BulkMembershipResultDTO result = membershipService.applyBulk(groupId, MembershipAction.ADD,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(List.of(MembershipStatus.INVALID_ID, MembershipStatus.INVALID_ID, MembershipStatus.ADDED),
+				result.getResults().stream().map(MembershipResultDTO::getStatus).toList());
+		assertEquals(2, result.getCounts().get(MembershipStatus.INVALID_ID));
+		assertEquals(1, countMemberships());
+	}
+
+	@Test
+	void indexAnswersMembershipAndSharedGroupQueries() {
+		User other = new User();
+		other.setName("John");
+		Integer otherId = userRepo.save(other).getId();
+		Group second = new Group();
+		second.setName("Compilers");
+		Integer secondId = groupRepo.save(second).getId();
+
+		membershipService.addMember(userId, groupId);
+		membershipService.addMember(userId, secondId);
+		membershipService.applyBulk(secondId, MembershipAction.ADD, List.of(otherId).iterator());
+
+		assertArrayEquals(new int[]{groupId, secondId}, membershipService.getGroupIdsOfUser(userId));
+		assertArrayEquals(new int[]{userId, otherId}, membershipService.getMemberIdsOfGroup(secondId));
+		assertArrayEquals(new int[]{secondId}, membershipService.getSharedGroupIds(userId, otherId));
+
+		membershipService.removeMember(userId, secondId);
+		assertArrayEquals(new int[0], membershipService.getSharedGroupIds(userId, otherId));
+	}
+
+	private int countMemberships() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_group WHERE user_id = ? AND group_id = ?",
+				Integer.class, userId, groupId);
+	}
+}
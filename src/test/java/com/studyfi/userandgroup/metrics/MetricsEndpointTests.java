@@ -0,0 +1,56 @@
+package com.studyfi.userandgroup.metrics;
+
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Scrapes /actuator/prometheus the way a local Prometheus would
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+	}
+
+	@Test
+	void prometheusEndpointExposesHotPathMetrics() throws Exception {
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		Integer userId = userRepo.save(user).getId();
+
+		mockMvc.perform(get("/users/" + userId)).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+		assertTrue(scrape.contains("uri=\"/users/{userId}\""), "latency tagged by route");
+		assertTrue(scrape.contains("http_server_requests_queries_count{"), "queries per request");
+		assertTrue(scrape.contains("hibernate_query_executions_total"), "hibernate statistics");
+		assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"), "connection pool wait");
+		assertTrue(scrape.contains("password_hash_seconds"), "hashing latency");
+		assertTrue(scrape.contains("mail_send_seconds"), "mail send latency");
+		assertTrue(scrape.contains("mail_failed_total{"), "mail send failures");
+	}
+}
@@ -0,0 +1,104 @@
+package com.studyfi.userandgroup.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+	private final AtomicLong now = new AtomicLong(-5_000_000_000L);  // nanoTime may well be negative
+
+	@Test
+	void allowsBurstThenRefillsOneTokenPerInterval() {
+		RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(30), 100, now::get);
+
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		assertEquals(TimeUnit.SECONDS.toNanos(10), limiter.tryAcquire("jane@studyfi.com"));
+
+		// Other keys have their own bucket
+		assertEquals(0, limiter.tryAcquire("john@studyfi.com"));
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		assertTrue(limiter.tryAcquire("jane@studyfi.com") > 0);
+
+		// A long idle period refills the bucket, but never beyond its capacity
+		now.addAndGet(TimeUnit.HOURS.toNanos(1));
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		}
+		assertTrue(limiter.tryAcquire("jane@studyfi.com") > 0);
+	}
+
+	@Test
+	void concurrentCallersNeverGetMoreThanCapacity() throws Exception {
+		RateLimiter limiter = new RateLimiter(100, Duration.ofHours(1), 100, now::get);
+		AtomicInteger allowed = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 1000; i++) {
+			executor.execute(() -> {
+				if (limiter.tryAcquire("10.0.0.1") == 0) {
+					allowed.incrementAndGet();
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(100, allowed.get());
+	}
+
+	@Test
+	void floodOfNewKeysNeverResetsAnActiveBucket() {
+		RateLimiter limiter = new RateLimiter(2, Duration.ofMinutes(1), 3, now::get);
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+		assertEquals(0, limiter.tryAcquire("jane@studyfi.com"));
+
+		// The table fills up with active keys; further new keys are refused rather than evicting Jane's bucket
+		assertEquals(0, limiter.tryAcquire("a@studyfi.com"));
+		assertEquals(0, limiter.tryAcquire("b@studyfi.com"));
+		assertTrue(limiter.tryAcquire("c@studyfi.com") > 0);
+		assertTrue(limiter.tryAcquire("jane@studyfi.com") > 0);
+
+		// Once buckets have refilled completely they can make room for new keys
+		now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+		assertEquals(0, limiter.tryAcquire("c@studyfi.com"));
+	}
+
+	@Test
+	void serviceAnswers429ByEmailAndByIp() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RateLimitService rateLimitService = new RateLimitService(meterRegistry, 100,
+				2, Duration.ofMinutes(15), 3, Duration.ofMinutes(1),
+				5, Duration.ofHours(1), 10, Duration.ofMinutes(1));
+
+		// Email limit applies across client IPs and ignores case
+		rateLimitService.checkForgotPassword("jane@studyfi.com", "10.0.0.1");
+		rateLimitService.checkForgotPassword("JANE@studyfi.com", "10.0.0.2");
+		ResponseStatusException byEmail = assertThrows(ResponseStatusException.class,
+				() -> rateLimitService.checkForgotPassword("jane@studyfi.com", "10.0.0.3"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, byEmail.getStatusCode());
+
+		// IP limit applies across emails
+		rateLimitService.checkForgotPassword("a@studyfi.com", "10.0.0.9");
+		rateLimitService.checkForgotPassword("b@studyfi.com", "10.0.0.9");
+		rateLimitService.checkForgotPassword("c@studyfi.com", "10.0.0.9");
+		assertThrows(ResponseStatusException.class,
+				() -> rateLimitService.checkForgotPassword("d@studyfi.com", "10.0.0.9"));
+
+		assertEquals(2, meterRegistry.get("rate.limit.rejected").tag("endpoint", "forgot-password").counter().count());
+	}
+}
@@ -0,0 +1,96 @@
+package com.studyfi.userandgroup.user.mapper;
+
+import com.studyfi.userandgroup.group.model.Group;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.model.User;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Checks the hand-written mapper against what ModelMapper produced before it was replaced
+class UserMapperTests {
+
+	private final ModelMapper modelMapper = new ModelMapper();
+	private final UserMapper userMapper = new UserMapper();
+
+	@Test
+	void toDTOMatchesModelMapperExceptPassword() {
+		User user = fullUser();
+
+		UserDTO expected = modelMapper.map(user, UserDTO.class);
+		UserDTO actual = userMapper.toDTO(user);
+
+		assertSameProfile(expected, actual);
+		assertNull(actual.getPassword());
+	}
+
+	@Test
+	void toDTOKeepsNullFields() {
+		User user = new User();
+		user.setId(7);
+
+		assertSameProfile(modelMapper.map(user, UserDTO.class), userMapper.toDTO(user));
+	}
+
+	@Test
+	void toDTODoesNotTouchGroups() {
+		User user = fullUser();
+		user.setGroups(null);
+
+		assertDoesNotThrow(() -> userMapper.toDTO(user));
+	}
+
+	@Test
+	void toEntityMatchesModelMapperExceptPassword() {
+		UserDTO userDTO = modelMapper.map(fullUser(), UserDTO.class);
+
+		User expected = modelMapper.map(userDTO, User.class);
+		User actual = userMapper.toEntity(userDTO);
+
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getEmail(), actual.getEmail());
+		assertEquals(expected.getPhoneContact(), actual.getPhoneContact());
+		assertEquals(expected.getBirthDate(), actual.getBirthDate());
+		assertEquals(expected.getCountry(), actual.getCountry());
+		assertEquals(expected.getAboutMe(), actual.getAboutMe());
+		assertEquals(expected.getCurrentAddress(), actual.getCurrentAddress());
+		assertNull(actual.getPassword());
+		assertNull(actual.getResetToken());
+		assertNull(actual.getResetTokenExpiry());
+		assertNull(actual.getGroups());
+	}
+
+	private void assertSameProfile(UserDTO expected, UserDTO actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getEmail(), actual.getEmail());
+		assertEquals(expected.getPhoneContact(), actual.getPhoneContact());
+		assertEquals(expected.getBirthDate(), actual.getBirthDate());
+		assertEquals(expected.getCountry(), actual.getCountry());
+		assertEquals(expected.getAboutMe(), actual.getAboutMe());
+		assertEquals(expected.getCurrentAddress(), actual.getCurrentAddress());
+	}
+
+	private User fullUser() {
+		User user = new User();
+		user.setId(42);
+		user.setName("Jane Doe");
+		user.setEmail("jane@studyfi.com");
+		user.setPassword("$2a$10$hash");
+		user.setPhoneContact("+94 77 123 4567");
+		user.setBirthDate("2000-01-01");
+		user.setCountry("Sri Lanka");
+		user.setAboutMe("Likes graph theory");
+		user.setCurrentAddress("Colombo");
+		user.setResetToken("token");
+		user.setResetTokenExpiry(new Date());
+		user.setGroups(new ArrayList<>(List.of(new Group())));
+		return user;
+	}
+}
@@ -0,0 +1,90 @@
+package com.studyfi.userandgroup.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// Encoder that blocks until the test releases it, so the pool can be filled up
+	private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return "hashed:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encodedPassword.equals("hashed:" + rawPassword);
+		}
+	};
+
+	private final PasswordHasher passwordHasher = new PasswordHasher(blockingEncoder, meterRegistry, 1, 1, 1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		passwordHasher.shutdown();
+	}
+
+	@Test
+	void rejectsWith503WhenQueueIsFull() throws Exception {
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHasher.encode("first"));
+		waitUntil(() -> meterRegistry.get("password.hash.active").gauge().value() == 1);
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordHasher.encode("second"));
+		waitUntil(() -> meterRegistry.get("password.hash.queue.size").gauge().value() == 1);
+
+		ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> passwordHasher.encode("third"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+		assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+
+		release.countDown();
+		assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+		assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+		assertEquals(2, meterRegistry.get("password.hash").timer().count());
+	}
+
+	@Test
+	void importsHashOnTheirOwnPool() throws Exception {
+		CompletableFuture<List<String>> imported = CompletableFuture.supplyAsync(
+				() -> passwordHasher.encodeAll(Arrays.asList("a", null, "b")));
+		waitUntil(() -> meterRegistry.get("password.hash.import.active").gauge().value() == 1);
+
+		// The import holds its only worker, yet the interactive pool is still free
+		CompletableFuture<String> registration = CompletableFuture.supplyAsync(() -> passwordHasher.encode("first"));
+		waitUntil(() -> meterRegistry.get("password.hash.active").gauge().value() == 1);
+		assertEquals(0, meterRegistry.get("password.hash.queue.size").gauge().value());
+
+		release.countDown();
+		assertEquals("hashed:first", registration.get(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("hashed:a", null, "hashed:b"), imported.get(5, TimeUnit.SECONDS));
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for the hashing pool");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.mail.repo.OutboxMailRepo;
+import com.studyfi.userandgroup.user.dto.PasswordResetDTO;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"app.reset-token.mode=signed",
+		"app.reset-token.secret=test-secret"})
+class SignedResetTokenTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private SignedResetTokens signedResetTokens;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private OutboxMailRepo outboxMailRepo;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private Integer userId;
+
+	@BeforeEach
+	void setUp() {
+		outboxMailRepo.deleteAll();
+		userRepo.deleteAll();
+
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		user.setPassword(passwordEncoder.encode("OldPassword1!"));
+		userId = userRepo.save(user).getId();
+	}
+
+	@Test
+	void signedTokenResetsPasswordOnceWithoutTouchingTheUserRow() {
+		userService.sendPasswordResetLink("jane@studyfi.com");
+		assertNull(userRepo.findById(userId).orElseThrow().getResetToken());
+
+		assertEquals(0, userService.getUserById(userId).getVersion());  // Now cached
+
+		String token = mailedToken();
+		userService.resetPassword(token, passwordReset("NewPassword1!"));
+		assertTrue(passwordEncoder.matches("NewPassword1!", userRepo.findById(userId).orElseThrow().getPassword()));
+
+		// The reset is a new version, and the cached profile no longer claims otherwise
+		assertEquals(1, userRepo.findById(userId).orElseThrow().getVersion());
+		assertEquals(1, userService.getUserById(userId).getVersion());
+
+		// The password hash changed, so the same token no longer matches
+		RuntimeException reused = assertThrows(RuntimeException.class,
+				() -> userService.resetPassword(token, passwordReset("OtherPassword1!")));
+		assertEquals("Reset token has already been used", reused.getMessage());
+	}
+
+	@Test
+	void rejectsTamperedExpiredAndMalformedTokens() {
+		String hash = userRepo.findById(userId).orElseThrow().getPassword();
+
+		String token = signedResetTokens.issue(userId, hash, System.currentTimeMillis() + 60_000);
+		String tampered = (token.charAt(0) == 'B' ? 'C' : 'B') + token.substring(1);  // A different user id
+		assertEquals("Invalid reset token", assertThrows(RuntimeException.class,
+				() -> userService.resetPassword(tampered, passwordReset("NewPassword1!"))).getMessage());
+
+		String expired = signedResetTokens.issue(userId, hash, System.currentTimeMillis() - 1);
+		assertEquals("Reset token has expired", assertThrows(RuntimeException.class,
+				() -> userService.resetPassword(expired, passwordReset("NewPassword1!"))).getMessage());
+
+		assertEquals("Invalid reset token", assertThrows(RuntimeException.class,
+				() -> userService.resetPassword("not a token", passwordReset("NewPassword1!"))).getMessage());
+
+		assertTrue(passwordEncoder.matches("OldPassword1!", userRepo.findById(userId).orElseThrow().getPassword()));
+	}
+
+	private String mailedToken() {
+		String body = outboxMailRepo.findAll().get(0).getBody();
+		return body.substring(body.indexOf("token=") + "token=".length()).trim();
+	}
+
+	private static PasswordResetDTO passwordReset(String newPassword) {
+		PasswordResetDTO passwordResetDTO = new PasswordResetDTO();
+		passwordResetDTO.setNewPassword(newPassword);
+		return passwordResetDTO;
+	}
+}
@@ -0,0 +1,111 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.service.GroupService;
+import com.studyfi.userandgroup.membership.service.MembershipService;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserFieldsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupService groupService;
+
+	@Autowired
+	private MembershipService membershipService;
+
+	private final List<Integer> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		userRepo.deleteAll();
+		userIds.clear();
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setName("User " + i);
+			user.setEmail("user" + i + "@studyfi.com");
+			user.setAboutMe("A long story about user " + i);
+			userIds.add(userRepo.save(user).getId());
+		}
+	}
+
+	@Test
+	void returnsOnlyTheRequestedFields() throws Exception {
+		mockMvc.perform(get("/users/" + userIds.get(0)).param("fields", "name, country"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(userIds.get(0)))
+				.andExpect(jsonPath("$.name").value("User 0"))
+				.andExpect(jsonPath("$.country").isEmpty())
+				.andExpect(jsonPath("$.email").doesNotExist())
+				.andExpect(jsonPath("$.aboutMe").doesNotExist());
+
+		mockMvc.perform(get("/users/getusers").param("fields", "name"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[2].name").value("User 2"))
+				.andExpect(jsonPath("$[2].aboutMe").doesNotExist());
+
+		mockMvc.perform(get("/users/page").param("fields", "email").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.users.length()").value(2))
+				.andExpect(jsonPath("$.users[1].email").value("user1@studyfi.com"))
+				.andExpect(jsonPath("$.nextCursor").value(userIds.get(1)));
+
+		// Without fields= the full profile comes back as before
+		mockMvc.perform(get("/users/" + userIds.get(1)))
+				.andExpect(jsonPath("$.aboutMe").value("A long story about user 1"));
+	}
+
+	@Test
+	void streamIsWrittenWithinTheRequestNotAsynchronously() throws Exception {
+		mockMvc.perform(get("/users/stream"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[1].email").value("user1@studyfi.com"));
+	}
+
+	@Test
+	void rejectsUnknownFields() throws Exception {
+		mockMvc.perform(get("/users/getusers").param("fields", "name,password"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/users/" + userIds.get(0)).param("fields", "resetToken"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void groupRosterHasSummariesOnly() throws Exception {
+		GroupDTO group = new GroupDTO();
+		group.setName("Algebra");
+		Integer groupId = groupService.createGroup(group).getId();
+		membershipService.addMember(userIds.get(2), groupId);
+		membershipService.addMember(userIds.get(0), groupId);
+
+		mockMvc.perform(get("/groups/" + groupId + "/members/summary"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].name").value("User 0"))
+				.andExpect(jsonPath("$[1].email").value("user2@studyfi.com"))
+				.andExpect(jsonPath("$[1].aboutMe").doesNotExist());
+	}
+}
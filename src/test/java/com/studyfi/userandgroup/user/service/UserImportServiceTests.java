@@ -0,0 +1,124 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserJdbcRepo;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserImportServiceTests {
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private UserJdbcRepo userJdbcRepo;
+
+	@Autowired
+	private PasswordHasher passwordHasher;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private UserImportService userImportService;
+
+	@BeforeEach
+	void setUp() {
+		userRepo.deleteAll();
+		User existing = new User();
+		existing.setName("Existing");
+		existing.setEmail("existing@studyfi.com");
+		userRepo.save(existing);
+
+		// Batches of two so the import crosses several of them
+		userImportService = new UserImportService(userJdbcRepo, passwordHasher, userSearchIndex, transactionTemplate, objectMapper, 2);
+	}
+
+	@Test
+	void importsValidCsvRowsAndReportsTheRest() throws Exception {
+		String csv = """
+				name,email,password,country
+				Ada Lovelace,ADA@studyfi.com,Password1!,UK
+				Alan Turing,alan@studyfi.com,,UK
+				No Email,,Password1!,UK
+				Weak Password,weak@studyfi.com,password,UK
+				Ada Again,ada@studyfi.com,Password1!,UK
+				Existing,existing@studyfi.com,Password1!,UK
+				Grace Hopper,grace@studyfi.com,Password1!,US
+				""";
+
+		List<JsonNode> report = importUsers(csv, UserImportService.Format.CSV);
+
+		List<Long> rejectedRows = report.stream().filter(line -> line.get("type").asText().equals("error"))
+				.map(line -> line.get("row").asLong()).sorted().toList();
+		// Missing email, weak password, Ada's email again (from an earlier batch) and an already registered email
+		assertEquals(List.of(3L, 4L, 5L, 6L), rejectedRows);
+
+		JsonNode summary = report.get(report.size() - 1);
+		assertTrue(summary.get("done").asBoolean());
+		assertEquals(7, summary.get("processed").asLong());
+		assertEquals(3, summary.get("imported").asLong());
+		assertEquals(4, summary.get("failed").asLong());
+
+		User ada = userRepo.findByEmail("ada@studyfi.com");
+		assertEquals("Ada Lovelace", ada.getName());
+		assertEquals("UK", ada.getCountry());
+		assertTrue(passwordEncoder.matches("Password1!", ada.getPassword()));
+		assertNull(userRepo.findByEmail("alan@studyfi.com").getPassword());
+
+		// Imported users are searchable straight away
+		assertTrue(userSearchIndex.search("grace", 10).stream().anyMatch(user -> user.getEmail().equals("grace@studyfi.com")));
+	}
+
+	@Test
+	void ndjsonImportSkipsRowsOfTheWrongShape() throws Exception {
+		String ndjson = """
+				{"name": "Ada Lovelace", "email": "ada@studyfi.com", "password": "Password1!"}
+				{"name": {"first": "Alan"}, "email": "alan@studyfi.com"}
+				{"name": "Grace Hopper", "email": "grace@studyfi.com"}
+				""";
+
+		List<JsonNode> report = importUsers(ndjson, UserImportService.Format.NDJSON);
+
+		JsonNode error = report.stream().filter(line -> line.get("type").asText().equals("error")).findFirst().orElseThrow();
+		assertEquals(2, error.get("row").asLong());
+		JsonNode summary = report.get(report.size() - 1);
+		assertEquals(2, summary.get("imported").asLong());
+		assertNotNull(userRepo.findByEmail("grace@studyfi.com"));
+	}
+
+	private List<JsonNode> importUsers(String body, UserImportService.Format format) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+}
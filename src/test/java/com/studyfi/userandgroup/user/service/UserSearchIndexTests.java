@@ -0,0 +1,40 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTests {
+
+	private final UserSearchIndex index = new UserSearchIndex(null);
+
+	@Test
+	void longPrefixesMatchingManyTermsAreCheckedUserByUser() {
+		for (int id = 1; id <= 200; id++) {
+			index.put(id, "Sam Surname" + id, "user" + id + "@studyfi.com");
+		}
+
+		// Over a hundred surnames and emails share these prefixes, more than are unioned per keystroke
+		assertEquals(List.of(4, 40, 41, 42, 43), searchIds("surname4", 5));
+		assertEquals(List.of(1, 10, 11, 12, 13), searchIds("user1", 5));
+		assertEquals(List.of(4, 40), searchIds("sam surname4", 2));
+		assertEquals(List.of(), searchIds("surname9999", 5));
+	}
+
+	@Test
+	void renamingKeepsOtherWordsUnderASharedShortPrefix() {
+		index.put(1, "Sam Smith", "sam@studyfi.com");
+		index.put(1, "Sam Jones", "sam@studyfi.com");
+
+		assertEquals(List.of(), searchIds("sm", 10));
+		assertEquals(List.of(1), searchIds("s", 10));
+		assertEquals(List.of(1), searchIds("jo", 10));
+	}
+
+	private List<Integer> searchIds(String query, int limit) {
+		return index.search(query, limit).stream().map(UserSummaryDTO::getId).toList();
+	}
+}
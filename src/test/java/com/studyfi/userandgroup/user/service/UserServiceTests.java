@@ -0,0 +1,177 @@
+package com.studyfi.userandgroup.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyfi.userandgroup.user.dto.UserDTO;
+import com.studyfi.userandgroup.user.dto.UserPageDTO;
+import com.studyfi.userandgroup.user.dto.UserSummaryDTO;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class UserServiceTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seedUsers() {
+		userRepo.deleteAll();
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setName("user" + i);
+			user.setEmail("user" + i + "@studyfi.com");
+			user.setPassword("hash");
+			userRepo.save(user);
+		}
+	}
+
+	@Test
+	void pagesWalkAllUsersInIdOrder() {
+		List<Integer> ids = new ArrayList<>();
+		Integer cursor = null;
+		do {
+			UserPageDTO<UserDTO> page = userService.getUsersPage(cursor, 2);
+			page.getUsers().forEach(user -> ids.add(user.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(5, ids.size());
+		assertEquals(ids.stream().sorted().toList(), ids);
+	}
+
+	@Test
+	void patchChangesOnlyGivenFieldsAndKeepsPasswordHash() {
+		User user = userRepo.findAll().get(0);
+		UserDTO patch = new UserDTO();
+		patch.setAboutMe("Now studying compilers");
+
+		UserDTO patched = userService.patchUserProfile(user.getId(), patch, null);
+		userRepo.flush();
+
+		// Read the row itself rather than the entity cached in this test's persistence context
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT name, password, about_me FROM user WHERE id = ?", user.getId());
+		assertEquals("Now studying compilers", patched.getAboutMe());
+		assertEquals("Now studying compilers", row.get("about_me"));
+		assertEquals(user.getName(), row.get("name"));
+		assertEquals("hash", row.get("password"));
+	}
+
+	@Test
+	void patchHashesNewPassword() {
+		User user = userRepo.findAll().get(0);
+		UserDTO patch = new UserDTO();
+		patch.setPassword("NewPassw0rd!");
+
+		userService.patchUserProfile(user.getId(), patch, null);
+
+		assertTrue(passwordEncoder.matches("NewPassw0rd!", userRepo.findById(user.getId()).orElseThrow().getPassword()));
+	}
+
+	@Test
+	void registerStoresLowerCaseEmailAndRejectsDuplicates() {
+		UserDTO userDTO = new UserDTO();
+		userDTO.setName("Jane");
+		userDTO.setEmail("  Jane.Doe@StudyFi.com ");
+		userDTO.setPassword("Passw0rd!");
+
+		assertEquals("jane.doe@studyfi.com", userService.registerUser(userDTO).getEmail());
+
+		userDTO.setEmail("JANE.DOE@studyfi.com");
+		ResponseStatusException duplicate = assertThrows(ResponseStatusException.class, () -> userService.registerUser(userDTO));
+		assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+	}
+
+	@Test
+	void onlyTheEmailIndexIsReportedAsDuplicateEmail() {
+		Integer userId = userRepo.findAll().get(0).getId();
+		UserDTO patch = new UserDTO();
+		patch.setAboutMe("x".repeat(300));  // Longer than the column
+
+		assertThrows(DataIntegrityViolationException.class, () -> userService.patchUserProfile(userId, patch, null));
+	}
+
+	@Test
+	void getUserByIdIsCachedUntilProfileChanges() {
+		Integer userId = userRepo.findAll().get(0).getId();
+		userService.getUserById(userId);
+
+		// A change behind the service's back is not seen while the entry is cached
+		jdbcTemplate.update("UPDATE user SET name = 'changed' WHERE id = ?", userId);
+		assertNotEquals("changed", userService.getUserById(userId).getName());
+
+		UserDTO patch = new UserDTO();
+		patch.setName("patched");
+		userService.patchUserProfile(userId, patch, null);
+		assertEquals("patched", userService.getUserById(userId).getName());
+	}
+
+	@Test
+	void searchMatchesNamePrefixesBeforeEmailAndFollowsUpdates() {
+		UserDTO ada = register("Ada Lovelace", "countess@studyfi.com");
+		UserDTO grace = register("Grace Hopper", "ada.fan@studyfi.com");
+
+		assertEquals(List.of(ada.getId(), grace.getId()), searchIds("ada"));
+		assertEquals(List.of(ada.getId()), searchIds("lov ad"));
+
+		UserDTO patch = new UserDTO();
+		patch.setName("Augusta King");
+		userService.patchUserProfile(ada.getId(), patch, null);
+
+		assertEquals(List.of(grace.getId()), searchIds("ada"));
+		assertEquals(List.of(ada.getId()), searchIds("aug"));
+	}
+
+	@Test
+	void streamWritesEveryUserWithoutPassword() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		userService.streamUsers(out);
+
+		JsonNode users = objectMapper.readTree(out.toByteArray());
+		assertEquals(5, users.size());
+		assertEquals("user0", users.get(0).get("name").asText());
+		assertTrue(users.get(0).get("password").isNull());
+	}
+
+	private List<Integer> searchIds(String query) {
+		return userService.searchUsers(query, 10).stream().map(UserSummaryDTO::getId).toList();
+	}
+
+	private UserDTO register(String name, String email) {
+		UserDTO userDTO = new UserDTO();
+		userDTO.setName(name);
+		userDTO.setEmail(email);
+		userDTO.setPassword("Passw0rd!");
+		return userService.registerUser(userDTO);
+	}
+}
@@ -0,0 +1,83 @@
+package com.studyfi.userandgroup.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatsTests {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	private final CBORMapper cborMapper = new CBORMapper();
+	private final SmileMapper smileMapper = new SmileMapper();
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+		groupRepo.deleteAll();
+	}
+
+	@Test
+	void answersInCborWhenAskedAndJsonOtherwise() throws Exception {
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		Integer userId = userRepo.save(user).getId();
+
+		byte[] cbor = mockMvc.perform(get("/users/" + userId).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertEquals("jane@studyfi.com", cborMapper.readTree(cbor).get("email").asText());
+
+		mockMvc.perform(get("/users/" + userId))
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.name").value("Jane"));
+		mockMvc.perform(get("/users/" + userId).accept(MediaType.ALL))
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void readsAndWritesSmileBodies() throws Exception {
+		GroupDTO group = new GroupDTO();
+		group.setName("Algebra");
+		group.setDescription("Weekly problem sets");
+
+		byte[] created = mockMvc.perform(post("/groups/create").contentType(SMILE).accept(SMILE)
+						.content(smileMapper.writeValueAsBytes(group)))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode body = smileMapper.readTree(created);
+		assertEquals("Algebra", body.get("name").asText());
+		assertEquals("Weekly problem sets", body.get("description").asText());
+	}
+}
@@ -0,0 +1,137 @@
+package com.studyfi.userandgroup.web;
+
+import com.studyfi.userandgroup.group.dto.GroupDTO;
+import com.studyfi.userandgroup.group.repo.GroupRepo;
+import com.studyfi.userandgroup.group.service.GroupService;
+import com.studyfi.userandgroup.user.model.User;
+import com.studyfi.userandgroup.user.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ETagTests {
+
+	private static final String PROFILE = """
+			{"name": "Jane Doe", "email": "jane@studyfi.com", "password": "Password1!"}""";
+
+	private static final String SAM = """
+			{"name": "Sam Doe", "email": "sam@studyfi.com", "password": "Password1!"}""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private GroupRepo groupRepo;
+
+	@Autowired
+	private GroupService groupService;
+
+	@BeforeEach
+	void cleanUp() {
+		userRepo.deleteAll();
+		groupRepo.deleteAll();
+	}
+
+	@Test
+	void userReadsAreConditionalAndUpdatesNeedTheCurrentVersion() throws Exception {
+		User user = new User();
+		user.setName("Jane");
+		user.setEmail("jane@studyfi.com");
+		Integer userId = userRepo.save(user).getId();
+
+		mockMvc.perform(get("/users/" + userId))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+		mockMvc.perform(get("/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		mockMvc.perform(put("/users/profile/" + userId).header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON).content(PROFILE))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		// A second client still holding version 0 loses
+		mockMvc.perform(put("/users/profile/" + userId).header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON).content(PROFILE))
+				.andExpect(status().isPreconditionFailed());
+
+		mockMvc.perform(get("/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Jane Doe"))
+				.andExpect(jsonPath("$.version").value(1));
+	}
+
+	@Test
+	void passwordResetKeepsETagsInStepWithTheStoredVersion() throws Exception {
+		User user = new User();
+		user.setName("Sam");
+		user.setEmail("sam@studyfi.com");
+		Integer userId = userRepo.save(user).getId();
+		mockMvc.perform(get("/users/" + userId)).andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+		// Issuing a reset token is not a profile change: the ETag a client holds still works
+		mockMvc.perform(post("/users/forgot-password").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\": \"sam@studyfi.com\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/users/" + userId)).andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+		mockMvc.perform(put("/users/profile/" + userId).header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON).content(SAM))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		// Resetting the password is, and the cached profile follows it
+		mockMvc.perform(post("/users/forgot-password").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\": \"sam@studyfi.com\"}"));
+		String token = userRepo.findById(userId).orElseThrow().getResetToken();
+		mockMvc.perform(post("/users/reset-password").param("token", token)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"newPassword\": \"NewPassword1!\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/users/" + userId)).andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+		mockMvc.perform(put("/users/profile/" + userId).header(HttpHeaders.IF_MATCH, "\"2\"")
+						.contentType(MediaType.APPLICATION_JSON).content(SAM))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void groupListIsConditionalOnEveryCreateAndUpdate() throws Exception {
+		GroupDTO group = new GroupDTO();
+		group.setName("Algebra");
+		Integer groupId = groupService.createGroup(group).getId();
+
+		String etag = mockMvc.perform(get("/groups/all"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/groups/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(put("/groups/update/" + groupId).header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Linear Algebra\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		String updatedEtag = mockMvc.perform(get("/groups/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, updatedEtag);
+
+		mockMvc.perform(get("/groups/" + groupId).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+				.andExpect(status().isNotModified());
+	}
+}